@@ -0,0 +1,92 @@
+package in.rslather.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.rslather.utils.ArrayBag;
+
+/**
+ * Removal from ArrayBag against ArrayList and HashSet, one element at a time and in bulk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BagBenchmark {
+	@Param({ "ArrayBag", "ArrayList", "HashSet" })
+	String impl;
+
+	@Param({ "1000", "100000" })
+	int size;
+
+	Collection<Integer> collection;
+	int next = 0;
+
+	static Collection<Integer> create(String impl, int size) {
+		switch (impl) {
+		case "ArrayBag":
+			return new ArrayBag<>(size);
+		case "ArrayList":
+			return new ArrayList<>(size);
+		default:
+			return new HashSet<>(size * 2);
+		}
+	}
+
+	@Setup
+	public void setup() { collection = filled(impl, size); }
+
+	static Collection<Integer> filled(String impl, int size) {
+		Collection<Integer> collection = create(impl, size);
+		for (int i = 0; i < size; i++)
+			collection.add(i);
+		return collection;
+	}
+
+	/**
+	 * Bulk removal destroys its input, so it gets a fresh collection for every call.
+	 */
+	@State(Scope.Thread)
+	public static class Bulk {
+		Collection<Integer> collection;
+		ArrayList<Integer> removed;
+
+		@Setup(Level.Invocation)
+		public void setup(BagBenchmark benchmark) {
+			collection = filled(benchmark.impl, benchmark.size);
+
+			removed = new ArrayList<>(benchmark.size / 2);
+			for (int i = 0; i < benchmark.size; i += 2)
+				removed.add(i);
+		}
+	}
+
+	@Benchmark
+	public boolean removeOne() {
+		// removed element is added back so the size stays the same
+		Integer item = next = (next + 7919) % size;
+		boolean isRemoved = collection.remove(item);
+		collection.add(item);
+		return isRemoved;
+	}
+
+	@Benchmark
+	public boolean removeAllHalf(Bulk bulk) { return bulk.collection.removeAll(bulk.removed); }
+}
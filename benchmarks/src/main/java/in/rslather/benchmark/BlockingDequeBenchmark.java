@@ -0,0 +1,97 @@
+package in.rslather.benchmark;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.rslather.BlockingDoublyLinkedList;
+
+/**
+ * BlockingDoublyLinkedList (two locks) against LinkedBlockingDeque (one lock) and LinkedBlockingQueue (two locks, no
+ * deque operations) as a handoff between producers and consumers.</br>
+ * Producers offer at the back and consumers poll at the front without blocking, so a thread never waits forever when
+ * the other side stops at the end of an iteration. Choose the threads per side with -tg, e.g. -tg 16,16.</br>
+ * An offer to a full or a poll from an empty queue is not a handoff, so the primary score (every call) is not the
+ * result, read the secondary "polled" result, the handoffs per second. "offered" should stay close to it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class BlockingDequeBenchmark {
+	@Param({ "BlockingDoublyLinkedList", "LinkedBlockingDeque", "LinkedBlockingQueue" })
+	String impl;
+
+	@Param({ "1024" })
+	int capacity;
+
+	BlockingQueue<Integer> queue;
+
+	@Setup
+	public void setup() {
+		switch (impl) {
+		case "BlockingDoublyLinkedList":
+			queue = new BlockingDoublyLinkedList<>(capacity);
+			break;
+		case "LinkedBlockingDeque":
+			queue = new LinkedBlockingDeque<>(capacity);
+			break;
+		case "LinkedBlockingQueue":
+			queue = new LinkedBlockingQueue<>(capacity);
+			break;
+		default:
+			throw new IllegalArgumentException(impl);
+		}
+	}
+
+	/**
+	 * Successful calls of one thread, reported as secondary results per second.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Handoffs {
+		public long offered;
+		public long polled;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			offered = 0;
+			polled = 0;
+		}
+	}
+
+	@Benchmark
+	@Group("handoff")
+	@GroupThreads(4)
+	public void produce(Handoffs handoffs) {
+		if (queue.offer(42))
+			handoffs.offered++;
+	}
+
+	@Benchmark
+	@Group("handoff")
+	@GroupThreads(4)
+	public void consume(Handoffs handoffs) {
+		if (queue.poll() != null)
+			handoffs.polled++;
+	}
+}
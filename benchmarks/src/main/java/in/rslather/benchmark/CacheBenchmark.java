@@ -0,0 +1,99 @@
+package in.rslather.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.rslather.example.IntrusiveLRUCache;
+import in.rslather.example.LRUCache;
+
+/**
+ * Single threaded LRUCache and IntrusiveLRUCache against LinkedHashMap in access order.</br>
+ * Keys are skewed so that most reads hit, every miss is followed by a put.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CacheBenchmark {
+	@Param({ "LRUCache", "IntrusiveLRUCache", "LinkedHashMap" })
+	String impl;
+
+	@Param({ "1000", "100000" })
+	int size;
+
+	Cache cache;
+	Integer[] keys;
+	int next = 0;
+
+	interface Cache {
+		Integer get(Integer key);
+
+		void put(Integer key, Integer value);
+	}
+
+	@Setup
+	public void setup() {
+		keys = Keys.skewed(size * 4);
+
+		switch (impl) {
+		case "LRUCache": {
+			LRUCache<Integer, Integer> lru = new LRUCache<>(size);
+			cache = new Cache() {
+				public Integer get(Integer key) { return lru.get(key); }
+
+				public void put(Integer key, Integer value) { lru.put(key, value); }
+			};
+			break;
+		}
+		case "IntrusiveLRUCache": {
+			IntrusiveLRUCache<Integer, Integer> lru = new IntrusiveLRUCache<>(size);
+			cache = new Cache() {
+				public Integer get(Integer key) { return lru.get(key); }
+
+				public void put(Integer key, Integer value) { lru.put(key, value); }
+			};
+			break;
+		}
+		default: {
+			Map<Integer, Integer> lru = new LinkedHashMap<Integer, Integer>(size * 2, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) { return size() > size; }
+			};
+			cache = new Cache() {
+				public Integer get(Integer key) { return lru.get(key); }
+
+				public void put(Integer key, Integer value) { lru.put(key, value); }
+			};
+		}
+		}
+
+		for (int i = 0; i < keys.length; i++)
+			getOrPut();
+	}
+
+	@Benchmark
+	public Integer getOrPut() {
+		Integer key = keys[next = (next + 1) & (keys.length - 1)];
+		Integer value = cache.get(key);
+		if (value == null)
+			cache.put(key, key);
+		return value;
+	}
+}
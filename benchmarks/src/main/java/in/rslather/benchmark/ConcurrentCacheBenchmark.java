@@ -0,0 +1,99 @@
+package in.rslather.benchmark;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.rslather.example.ConcurrentLRUCache;
+import in.rslather.example.ReadBufferedLRUCache;
+
+/**
+ * The thread safe caches against a synchronized LinkedHashMap in access order.</br>
+ * The cache is shared by all benchmark threads, run with -t to choose the thread count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentCacheBenchmark {
+	@Param({ "ConcurrentLRUCache", "ReadBufferedLRUCache", "SynchronizedLinkedHashMap" })
+	String impl;
+
+	@Param({ "100000" })
+	int size;
+
+	CacheBenchmark.Cache cache;
+	Integer[] keys;
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next = (int) (Thread.currentThread().getId() * 104729);
+	}
+
+	@Setup
+	public void setup() {
+		keys = Keys.skewed(size * 4);
+
+		switch (impl) {
+		case "ConcurrentLRUCache": {
+			ConcurrentLRUCache<Integer, Integer> lru = new ConcurrentLRUCache<>(size, 64);
+			cache = new CacheBenchmark.Cache() {
+				public Integer get(Integer key) { return lru.get(key); }
+
+				public void put(Integer key, Integer value) { lru.put(key, value); }
+			};
+			break;
+		}
+		case "ReadBufferedLRUCache": {
+			ReadBufferedLRUCache<Integer, Integer> lru = new ReadBufferedLRUCache<>(size);
+			cache = new CacheBenchmark.Cache() {
+				public Integer get(Integer key) { return lru.get(key); }
+
+				public void put(Integer key, Integer value) { lru.put(key, value); }
+			};
+			break;
+		}
+		default: {
+			Map<Integer, Integer> lru = Collections.synchronizedMap(new LinkedHashMap<Integer, Integer>(size * 2, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) { return size() > size; }
+			});
+			cache = new CacheBenchmark.Cache() {
+				public Integer get(Integer key) { return lru.get(key); }
+
+				public void put(Integer key, Integer value) { lru.put(key, value); }
+			};
+		}
+		}
+
+		for (Integer key : keys)
+			if (cache.get(key) == null)
+				cache.put(key, key);
+	}
+
+	@Benchmark
+	public Integer getOrPut(Cursor cursor) {
+		Integer key = keys[cursor.next = (cursor.next + 1) & (keys.length - 1)];
+		Integer value = cache.get(key);
+		if (value == null)
+			cache.put(key, key);
+		return value;
+	}
+}
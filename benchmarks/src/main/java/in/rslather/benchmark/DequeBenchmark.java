@@ -0,0 +1,76 @@
+package in.rslather.benchmark;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.rslather.utils.ArrayListDeque;
+import in.rslather.utils.CircularArrayDeque;
+
+/**
+ * ArrayListDeque and CircularArrayDeque against java.util.ArrayDeque, used as a queue and as a stack.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DequeBenchmark {
+	@Param({ "ArrayListDeque", "CircularArrayDeque", "ArrayDeque" })
+	String impl;
+
+	@Param({ "1000", "100000" })
+	int size;
+
+	Deque<Integer> deque;
+	Integer item = 42;
+
+	@Setup
+	public void setup() {
+		switch (impl) {
+		case "ArrayListDeque":
+			deque = new ArrayListDeque<>();
+			break;
+		case "CircularArrayDeque":
+			deque = new CircularArrayDeque<>();
+			break;
+		default:
+			deque = new ArrayDeque<>();
+		}
+
+		for (int i = 0; i < size; i++)
+			deque.addLast(i);
+	}
+
+	@Benchmark
+	public Integer queueOfferPoll() {
+		deque.offer(item);
+		return deque.poll();
+	}
+
+	@Benchmark
+	public Integer stackPushPop() {
+		deque.push(item);
+		return deque.pop();
+	}
+
+	@Benchmark
+	public Integer getMiddle() {
+		// ArrayDeque has no positional access
+		return (deque instanceof ArrayDeque) ? deque.peekFirst() : ((List<Integer>) deque).get(size / 2);
+	}
+}
@@ -0,0 +1,26 @@
+package in.rslather.benchmark;
+
+import java.util.Random;
+
+/**
+ * Pre-computed key sequences, so that generating keys is not part of what is measured.
+ */
+final class Keys {
+	static final int LENGTH = 1 << 20;
+
+	/**
+	 * @param keySpace number of distinct keys
+	 * @return LENGTH keys where low keys are much more frequent than high keys (roughly zipfian)
+	 */
+	static Integer[] skewed(int keySpace) {
+		Random random = new Random(42);
+		Integer[] keys = new Integer[LENGTH];
+		for (int i = 0; i < LENGTH; i++)
+			keys[i] = (int) Math.pow(keySpace, random.nextDouble()) - 1;
+		return keys;
+	}
+
+	private Keys() {
+		// private
+	}
+}
@@ -0,0 +1,119 @@
+package in.rslather.benchmark;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.rslather.DLLNode;
+import in.rslather.DoublyLinkedList;
+import in.rslather.UnrolledLinkedList;
+
+/**
+ * DoublyLinkedList against java.util.LinkedList for queue churn, iteration and moving an element to the front, and
+ * UnrolledLinkedList against java.util.LinkedList for iteration and seeking by index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LinkedListBenchmark {
+	@Param({ "1000", "100000" })
+	int size;
+
+	DoublyLinkedList<Integer> dll;
+	LinkedList<Integer> linkedList;
+	UnrolledLinkedList<Integer> unrolled;
+	DLLNode<Integer>[] nodes;
+	int next = 0;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		dll = new DoublyLinkedList<>();
+		linkedList = new LinkedList<>();
+		unrolled = new UnrolledLinkedList<>();
+		nodes = (DLLNode<Integer>[]) new DLLNode<?>[size];
+		for (int i = 0; i < size; i++) {
+			nodes[i] = new DLLNode<>(i);
+			dll.addLast(nodes[i]);
+			linkedList.addLast(i);
+			unrolled.addLast(i);
+		}
+	}
+
+	int nextIndex() {
+		next = (next + 7919) % size; // walks all positions in a cache unfriendly order
+		return next;
+	}
+
+	@Benchmark
+	public DLLNode<Integer> dllAddFirstPollLast() {
+		dll.addFirst(new DLLNode<>(next++));
+		return dll.pollLast();
+	}
+
+	@Benchmark
+	public Integer linkedListAddFirstPollLast() {
+		linkedList.addFirst(next++);
+		return linkedList.pollLast();
+	}
+
+	@Benchmark
+	public long dllIterate() {
+		long sum = 0;
+		for (DLLNode<Integer> node : dll)
+			sum += node.getItem();
+		return sum;
+	}
+
+	@Benchmark
+	public long linkedListIterate() {
+		long sum = 0;
+		for (Integer i : linkedList)
+			sum += i;
+		return sum;
+	}
+
+	@Benchmark
+	public long unrolledIterate() {
+		long sum = 0;
+		for (Integer i : unrolled)
+			sum += i;
+		return sum;
+	}
+
+	@Benchmark
+	public Integer linkedListGet() { return linkedList.get(nextIndex()); }
+
+	@Benchmark
+	public Integer unrolledGet() { return unrolled.get(nextIndex()); }
+
+	@Benchmark
+	public void dllMoveToFirst() { dll.moveToFirst(nodes[nextIndex()]); }
+
+	@Benchmark
+	public void linkedListMoveToFirst() {
+		// LinkedList has no handles, the element has to be found first
+		Integer item = nextIndex();
+		for (Iterator<Integer> itr = linkedList.iterator(); itr.hasNext();)
+			if (itr.next().equals(item)) {
+				itr.remove();
+				break;
+			}
+		linkedList.addFirst(item);
+	}
+}
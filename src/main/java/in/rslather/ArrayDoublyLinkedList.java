@@ -0,0 +1,406 @@
+package in.rslather;
+
+import java.io.Serializable;
+import java.util.AbstractSequentialList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+import in.rslather.utils.DefaultDeque;
+
+/**
+ * A Doubly Linked List which keeps its elements and links in parallel arrays instead of node objects.</br>
+ * Every element is identified by an int handle (its slot in the arrays) which stays valid until the element is
+ * removed, handles of removed elements are reused through a free list.</br>
+ * Slot 0 is the sentinel, its next is the first element and its prev is the last element.
+ *
+ * @param <E>
+ */
+public class ArrayDoublyLinkedList<E> extends AbstractSequentialList<E> implements DefaultDeque<E>, Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Handle of the sentinel, returned by navigation methods when there is no such element.
+	 */
+	public static final int NIL = 0;
+	static final int DEFAULT_CAPACITY = 16;
+
+	Object[] elements;
+	int[] prev;
+	int[] next;
+	int freeHead = NIL; // free slots are chained through next
+	int used = 1; // slots below this index have been handed out at least once
+	int length = 0;
+
+	public ArrayDoublyLinkedList() { this(DEFAULT_CAPACITY); }
+
+	/**
+	 * @param initSize number of elements the list can hold before growing
+	 */
+	public ArrayDoublyLinkedList(int initSize) {
+		super();
+		if (initSize < 0)
+			throw new IllegalArgumentException();
+
+		elements = new Object[initSize + 1];
+		prev = new int[initSize + 1];
+		next = new int[initSize + 1];
+	}
+
+	public ArrayDoublyLinkedList(Collection<? extends E> c) {
+		this(c.size());
+		addAll(c);
+	}
+
+	// handle operations
+
+	/**
+	 * @param handle handle of an element in this list
+	 * @return the element
+	 */
+	@SuppressWarnings("unchecked")
+	public E getItem(int handle) { return (E) elements[handle]; }
+
+	/**
+	 * @param handle handle of an element in this list
+	 * @param item   replacement element
+	 */
+	public void setItem(int handle, E item) { elements[handle] = item; }
+
+	public int firstHandle() { return next[NIL]; }
+
+	public int lastHandle() { return prev[NIL]; }
+
+	/**
+	 * @return handle of the element after the given one or {@link #NIL}
+	 */
+	public int nextHandle(int handle) { return next[handle]; }
+
+	/**
+	 * @return handle of the element before the given one or {@link #NIL}
+	 */
+	public int prevHandle(int handle) { return prev[handle]; }
+
+	/**
+	 * Move element from anywhere in this object to the first position.
+	 *
+	 * @param handle
+	 */
+	public void moveToFirst(int handle) { moveRight(NIL, handle); }
+
+	/**
+	 * Move element from anywhere in this object to the last position.
+	 *
+	 * @param handle
+	 */
+	public void moveToLast(int handle) { moveRight(prev[NIL], handle); }
+
+	/**
+	 * @param handle handle of the element to be removed, the handle becomes invalid
+	 * @return removed element
+	 */
+	public E removeNode(int handle) {
+		E item = getItem(handle);
+		unlink(handle);
+
+		elements[handle] = null;
+		next[handle] = freeHead;
+		freeHead = handle;
+
+		length--;
+		modCount++;
+		return item;
+	}
+
+	/**
+	 * @param handle handle of an element in this list
+	 * @param item   replacement element
+	 * @return replaced element
+	 */
+	public E replaceNode(int handle, E item) {
+		E old = getItem(handle);
+		elements[handle] = item;
+		return old;
+	}
+
+	/**
+	 * Insert an element to the right of a given element.
+	 *
+	 * @param leftHandle handle of an element in the list or {@link #NIL} to insert at the first position
+	 * @param item       element to be inserted to the right of leftHandle
+	 * @return handle of the inserted element
+	 */
+	public int insertRight(int leftHandle, E item) {
+		int handle = allocate();
+		elements[handle] = item;
+		link(leftHandle, handle);
+
+		length++;
+		modCount++;
+		return handle;
+	}
+
+	/**
+	 * Insert an element to the left of a given element.
+	 *
+	 * @param item        element to be inserted to the left of rightHandle
+	 * @param rightHandle handle of an element in the list or {@link #NIL} to insert at the last position
+	 * @return handle of the inserted element
+	 */
+	public int insertLeft(E item, int rightHandle) { return insertRight(prev[rightHandle], item); }
+
+	/**
+	 * @return handle of the inserted element
+	 */
+	public int linkFirst(E item) { return insertRight(NIL, item); }
+
+	/**
+	 * @return handle of the inserted element
+	 */
+	public int linkLast(E item) { return insertRight(prev[NIL], item); }
+
+	void moveRight(int leftHandle, int handle) {
+		if (leftHandle == handle || next[leftHandle] == handle)
+			return;
+
+		unlink(handle);
+		link(leftHandle, handle);
+		modCount++;
+	}
+
+	void link(int leftHandle, int handle) {
+		int right = next[leftHandle];
+
+		next[handle] = right;
+		prev[handle] = leftHandle;
+
+		prev[right] = handle;
+		next[leftHandle] = handle;
+	}
+
+	void unlink(int handle) {
+		int left = prev[handle];
+		int right = next[handle];
+
+		next[left] = right;
+		prev[right] = left;
+	}
+
+	int allocate() {
+		if (freeHead != NIL) {
+			int handle = freeHead;
+			freeHead = next[handle];
+			return handle;
+		}
+
+		if (used == elements.length) {
+			int newCapacity = used + (used >> 1) + 1;
+			elements = Arrays.copyOf(elements, newCapacity);
+			prev = Arrays.copyOf(prev, newCapacity);
+			next = Arrays.copyOf(next, newCapacity);
+		}
+		return used++;
+	}
+
+	int handleAt(int index) {
+		if (index < size() - index) {
+			int handle = next[NIL];
+			for (int i = 0; i < index; i++)
+				handle = next[handle];
+			return handle;
+		}
+
+		int handle = prev[NIL];
+		for (int i = size() - 1; i > index; i--)
+			handle = prev[handle];
+		return handle;
+	}
+
+	// List and Deque
+
+	@Override
+	// overriding because of optimization
+	public void clear() {
+		Arrays.fill(elements, 0, used, null);
+		next[NIL] = NIL;
+		prev[NIL] = NIL;
+		freeHead = NIL;
+		used = 1;
+		length = 0;
+		modCount++;
+	}
+
+	@Override
+	public void addFirst(E e) { linkFirst(e); }
+
+	@Override
+	public void addLast(E e) { linkLast(e); }
+
+	@Override
+	public E pollFirst() {
+		if (isEmpty())
+			return null;
+		return removeNode(next[NIL]);
+	}
+
+	@Override
+	public E pollLast() {
+		if (isEmpty())
+			return null;
+		return removeNode(prev[NIL]);
+	}
+
+	@Override
+	public E peekFirst() { return getItem(next[NIL]); }
+
+	@Override
+	public E peekLast() { return getItem(prev[NIL]); }
+
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		for (int h = next[NIL]; h != NIL; h = next[h])
+			if (o == null ? elements[h] == null : o.equals(elements[h])) {
+				removeNode(h);
+				return true;
+			}
+		return false;
+	}
+
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		for (int h = prev[NIL]; h != NIL; h = prev[h])
+			if (o == null ? elements[h] == null : o.equals(elements[h])) {
+				removeNode(h);
+				return true;
+			}
+		return false;
+	}
+
+	@Override
+	public boolean remove(Object o) { return removeFirstOccurrence(o); }
+
+	@Override
+	public int size() { return length; }
+
+	@Override
+	// overriding because of optimization
+	public E get(int index) {
+		checkIndex(index, size());
+		return getItem(handleAt(index));
+	}
+
+	@Override
+	// overriding because of optimization
+	public E set(int index, E element) {
+		checkIndex(index, size());
+		return replaceNode(handleAt(index), element);
+	}
+
+	@Override
+	// overriding because of optimization
+	public void add(int index, E element) {
+		checkIndex(index, size() + 1);
+		insertLeft(element, (index == size()) ? NIL : handleAt(index));
+	}
+
+	@Override
+	public E remove(int index) {
+		checkIndex(index, size());
+		return removeNode(handleAt(index));
+	}
+
+	static void checkIndex(int index, int bound) {
+		if (index < 0 || index >= bound)
+			throw new IndexOutOfBoundsException();
+	}
+
+	// iterators
+
+	@Override
+	public Iterator<E> descendingIterator() {
+		return new Iterator<E>() {
+			ListIterator<E> itr = listIterator(size());
+
+			public boolean hasNext() { return itr.hasPrevious(); }
+
+			public E next() { return itr.previous(); }
+
+			public void remove() { itr.remove(); }
+		};
+	}
+
+	@Override
+	public ListIterator<E> listIterator(int index) {
+		checkIndex(index, size() + 1);
+		return listIterator((index == size()) ? NIL : handleAt(index), index);
+	}
+
+	/**
+	 * @param handle the first element to be returned by a call to next(), {@link #NIL} when index is size()
+	 * @param index  index of handle, 0 <= index <= size()
+	 */
+	ListIterator<E> listIterator(int handle, int index) {
+		return new ListIterator<E>() {
+
+			int nextI = index;
+			int curr = prev[handle];
+			int old = NIL;
+			boolean isForward;
+
+			public boolean hasNext() { return nextI < size(); }
+
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				isForward = true;
+
+				nextI++;
+				curr = next[curr];
+				old = curr;
+				return getItem(old);
+			}
+
+			public boolean hasPrevious() { return previousIndex() >= 0; }
+
+			public E previous() {
+				if (!hasPrevious())
+					throw new NoSuchElementException();
+				isForward = false;
+				old = curr;
+
+				nextI--;
+				curr = prev[curr];
+				return getItem(old);
+			}
+
+			public int nextIndex() { return nextI; }
+
+			public int previousIndex() { return nextI - 1; }
+
+			public void remove() {
+				if (old == NIL)
+					throw new IllegalStateException();
+				if (isForward) {
+					curr = prev[old]; // old was left of the cursor
+					nextI--;
+				}
+				removeNode(old);
+				old = NIL;
+			}
+
+			public void set(E e) {
+				if (old == NIL)
+					throw new IllegalStateException();
+				replaceNode(old, e);
+			}
+
+			public void add(E e) {
+				curr = insertRight(curr, e);
+				old = NIL;
+				nextI++;
+			}
+		};
+	}
+}
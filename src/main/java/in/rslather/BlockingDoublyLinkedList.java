@@ -0,0 +1,698 @@
+package in.rslather;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread safe, optionally bounded BlockingDeque of DLLNodes with separate locks for its two ends.</br>
+ * The first node is a dummy node, the element taken from the front is cleared and its node becomes the new dummy
+ * node, so taking from the front (takeLock) and putting at the back (putLock) touch different nodes and run in
+ * parallel, as in a producer/consumer pipeline. Only the size is shared, it is atomic.</br>
+ * The deque operations against that direction (putFirst, takeLast and friends), removing from the middle,
+ * contains, toArray and iterators hold both locks. Blocking operations which hold both locks wait on the lock of
+ * the end they are waiting for only, and retry.</br>
+ * Iterators walk a copy of the deque taken when they were created.
+ *
+ * @param <E>
+ */
+public class BlockingDoublyLinkedList<E> extends AbstractQueue<E> implements BlockingDeque<E> {
+	final int capacity;
+	final AtomicInteger count = new AtomicInteger();
+
+	DLLNode<E> head; // dummy node, head.next is the first node, guarded by takeLock
+	DLLNode<E> last; // last node or head when empty, guarded by putLock
+
+	final ReentrantLock takeLock = new ReentrantLock();
+	final Condition notEmpty = takeLock.newCondition();
+	final ReentrantLock putLock = new ReentrantLock();
+	final Condition notFull = putLock.newCondition();
+
+	public BlockingDoublyLinkedList() { this(Integer.MAX_VALUE); }
+
+	/**
+	 * @param capacity maximum number of elements, puts block (or offers fail) while it is reached
+	 */
+	public BlockingDoublyLinkedList(int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException();
+		this.capacity = capacity;
+		last = head = new DLLNode<>();
+	}
+
+	public BlockingDoublyLinkedList(Collection<? extends E> c) {
+		this(Integer.MAX_VALUE);
+		for (E e : c)
+			addLast(e);
+	}
+
+	// linking, callers hold the locks noted
+
+	/**
+	 * putLock
+	 */
+	void linkLast(DLLNode<E> node) {
+		node.prev = last;
+		last.next = node;
+		last = node;
+	}
+
+	/**
+	 * takeLock
+	 */
+	E unlinkFirst() {
+		DLLNode<E> first = head.next;
+		E item = first.element;
+		first.element = null;
+		first.prev = null; // or every old dummy node would stay reachable through its successor
+
+		head.next = null;
+		head = first;
+		return item;
+	}
+
+	/**
+	 * both locks
+	 */
+	void linkFirst(DLLNode<E> node) {
+		DLLNode<E> first = head.next;
+		node.prev = head;
+		node.next = first;
+		head.next = node;
+		if (first == null)
+			last = node;
+		else
+			first.prev = node;
+	}
+
+	/**
+	 * both locks
+	 */
+	E unlinkLast() {
+		DLLNode<E> node = last;
+		E item = node.element;
+		node.element = null;
+
+		last = node.prev;
+		last.next = null;
+		node.prev = null;
+		return item;
+	}
+
+	/**
+	 * both locks
+	 */
+	void unlink(DLLNode<E> node) {
+		if (node == last) {
+			unlinkLast();
+		} else {
+			node.element = null;
+			node.prev.next = node.next;
+			node.next.prev = node.prev;
+		}
+
+		if (count.getAndDecrement() == capacity)
+			notFull.signal();
+	}
+
+	void fullyLock() {
+		putLock.lock();
+		takeLock.lock();
+	}
+
+	void fullyUnlock() {
+		takeLock.unlock();
+		putLock.unlock();
+	}
+
+	void signalNotEmpty() {
+		takeLock.lock();
+		try {
+			notEmpty.signal();
+		} finally {
+			takeLock.unlock();
+		}
+	}
+
+	void signalNotFull() {
+		putLock.lock();
+		try {
+			notFull.signal();
+		} finally {
+			putLock.unlock();
+		}
+	}
+
+	// back, putLock only
+
+	@Override
+	public boolean offerLast(E e) {
+		Objects.requireNonNull(e);
+		if (count.get() == capacity)
+			return false;
+
+		int c;
+		putLock.lock();
+		try {
+			if (count.get() == capacity)
+				return false;
+			linkLast(new DLLNode<>(e));
+			c = count.getAndIncrement();
+			if (c + 1 < capacity)
+				notFull.signal();
+		} finally {
+			putLock.unlock();
+		}
+
+		if (c == 0)
+			signalNotEmpty();
+		return true;
+	}
+
+	@Override
+	public void putLast(E e) throws InterruptedException {
+		Objects.requireNonNull(e);
+
+		int c;
+		putLock.lockInterruptibly();
+		try {
+			while (count.get() == capacity)
+				notFull.await();
+			linkLast(new DLLNode<>(e));
+			c = count.getAndIncrement();
+			if (c + 1 < capacity)
+				notFull.signal();
+		} finally {
+			putLock.unlock();
+		}
+
+		if (c == 0)
+			signalNotEmpty();
+	}
+
+	@Override
+	public boolean offerLast(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		Objects.requireNonNull(e);
+		long nanos = unit.toNanos(timeout);
+
+		int c;
+		putLock.lockInterruptibly();
+		try {
+			while (count.get() == capacity) {
+				if (nanos <= 0)
+					return false;
+				nanos = notFull.awaitNanos(nanos);
+			}
+			linkLast(new DLLNode<>(e));
+			c = count.getAndIncrement();
+			if (c + 1 < capacity)
+				notFull.signal();
+		} finally {
+			putLock.unlock();
+		}
+
+		if (c == 0)
+			signalNotEmpty();
+		return true;
+	}
+
+	// front, takeLock only
+
+	@Override
+	public E pollFirst() {
+		if (count.get() == 0)
+			return null;
+
+		E item;
+		int c;
+		takeLock.lock();
+		try {
+			if (count.get() == 0)
+				return null;
+			item = unlinkFirst();
+			c = count.getAndDecrement();
+			if (c > 1)
+				notEmpty.signal();
+		} finally {
+			takeLock.unlock();
+		}
+
+		if (c == capacity)
+			signalNotFull();
+		return item;
+	}
+
+	@Override
+	public E takeFirst() throws InterruptedException {
+		E item;
+		int c;
+		takeLock.lockInterruptibly();
+		try {
+			while (count.get() == 0)
+				notEmpty.await();
+			item = unlinkFirst();
+			c = count.getAndDecrement();
+			if (c > 1)
+				notEmpty.signal();
+		} finally {
+			takeLock.unlock();
+		}
+
+		if (c == capacity)
+			signalNotFull();
+		return item;
+	}
+
+	@Override
+	public E pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+
+		E item;
+		int c;
+		takeLock.lockInterruptibly();
+		try {
+			while (count.get() == 0) {
+				if (nanos <= 0)
+					return null;
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			item = unlinkFirst();
+			c = count.getAndDecrement();
+			if (c > 1)
+				notEmpty.signal();
+		} finally {
+			takeLock.unlock();
+		}
+
+		if (c == capacity)
+			signalNotFull();
+		return item;
+	}
+
+	@Override
+	public E peekFirst() {
+		if (count.get() == 0)
+			return null;
+
+		takeLock.lock();
+		try {
+			return (count.get() == 0) ? null : head.next.element;
+		} finally {
+			takeLock.unlock();
+		}
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> c) { return drainTo(c, Integer.MAX_VALUE); }
+
+	/**
+	 * Moves up to maxElements from the front into c taking the front lock once, producers are not held up.
+	 */
+	@Override
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		Objects.requireNonNull(c);
+		if (c == this)
+			throw new IllegalArgumentException();
+		if (maxElements <= 0)
+			return 0;
+
+		boolean signalNotFull = false;
+		int drained = 0;
+		takeLock.lock();
+		try {
+			int n = Math.min(maxElements, count.get());
+			try {
+				while (drained < n) {
+					c.add(head.next.element); // may throw, the elements added so far are removed below
+					unlinkFirst();
+					drained++;
+				}
+			} finally {
+				if (drained > 0)
+					signalNotFull = count.getAndAdd(-drained) == capacity;
+			}
+		} finally {
+			takeLock.unlock();
+		}
+
+		if (signalNotFull)
+			signalNotFull();
+		return drained;
+	}
+
+	// against the direction, both locks
+
+	@Override
+	public boolean offerFirst(E e) {
+		Objects.requireNonNull(e);
+		fullyLock();
+		try {
+			if (count.get() == capacity)
+				return false;
+			linkFirstAndSignal(e);
+			return true;
+		} finally {
+			fullyUnlock();
+		}
+	}
+
+	/**
+	 * both locks, there is room for e
+	 */
+	void linkFirstAndSignal(E e) {
+		linkFirst(new DLLNode<>(e));
+		int c = count.getAndIncrement();
+		notEmpty.signal();
+		if (c + 1 < capacity)
+			notFull.signal();
+	}
+
+	@Override
+	public void putFirst(E e) throws InterruptedException { offerFirst(e, Long.MAX_VALUE, TimeUnit.NANOSECONDS); }
+
+	@Override
+	public boolean offerFirst(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		Objects.requireNonNull(e);
+		long nanos = unit.toNanos(timeout);
+
+		while (true) {
+			fullyLock();
+			try {
+				if (count.get() < capacity) {
+					linkFirstAndSignal(e);
+					return true;
+				}
+			} finally {
+				fullyUnlock();
+			}
+
+			// waiting while holding the front lock as well would block every consumer
+			putLock.lockInterruptibly();
+			try {
+				while (count.get() == capacity) {
+					if (nanos <= 0)
+						return false;
+					nanos = notFull.awaitNanos(nanos);
+				}
+			} finally {
+				putLock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public E pollLast() {
+		fullyLock();
+		try {
+			return (count.get() == 0) ? null : unlinkLastAndSignal();
+		} finally {
+			fullyUnlock();
+		}
+	}
+
+	/**
+	 * both locks, there is an element
+	 */
+	E unlinkLastAndSignal() {
+		E item = unlinkLast();
+		int c = count.getAndDecrement();
+		notFull.signal();
+		if (c > 1)
+			notEmpty.signal();
+		return item;
+	}
+
+	@Override
+	public E takeLast() throws InterruptedException { return pollLast(Long.MAX_VALUE, TimeUnit.NANOSECONDS); }
+
+	@Override
+	public E pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+
+		while (true) {
+			fullyLock();
+			try {
+				if (count.get() > 0)
+					return unlinkLastAndSignal();
+			} finally {
+				fullyUnlock();
+			}
+
+			// waiting while holding the back lock as well would block every producer
+			takeLock.lockInterruptibly();
+			try {
+				while (count.get() == 0) {
+					if (nanos <= 0)
+						return null;
+					nanos = notEmpty.awaitNanos(nanos);
+				}
+			} finally {
+				takeLock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public E peekLast() {
+		fullyLock();
+		try {
+			return (count.get() == 0) ? null : last.element;
+		} finally {
+			fullyUnlock();
+		}
+	}
+
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		if (o == null)
+			return false;
+
+		fullyLock();
+		try {
+			for (DLLNode<E> node = head.next; node != null; node = node.next)
+				if (o.equals(node.element)) {
+					unlink(node);
+					return true;
+				}
+			return false;
+		} finally {
+			fullyUnlock();
+		}
+	}
+
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		if (o == null)
+			return false;
+
+		fullyLock();
+		try {
+			for (DLLNode<E> node = last; node != head; node = node.prev)
+				if (o.equals(node.element)) {
+					unlink(node);
+					return true;
+				}
+			return false;
+		} finally {
+			fullyUnlock();
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (o == null)
+			return false;
+
+		fullyLock();
+		try {
+			for (DLLNode<E> node = head.next; node != null; node = node.next)
+				if (o.equals(node.element))
+					return true;
+			return false;
+		} finally {
+			fullyUnlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		fullyLock();
+		try {
+			for (DLLNode<E> node = head.next; node != null; node = node.next)
+				node.element = null;
+			head.next = null;
+			last = head;
+			if (count.getAndSet(0) == capacity)
+				notFull.signal();
+		} finally {
+			fullyUnlock();
+		}
+	}
+
+	@Override
+	public Object[] toArray() {
+		fullyLock();
+		try {
+			Object[] array = new Object[count.get()];
+			int i = 0;
+			for (DLLNode<E> node = head.next; node != null; node = node.next)
+				array[i++] = node.element;
+			return array;
+		} finally {
+			fullyUnlock();
+		}
+	}
+
+	// Deque and BlockingQueue in terms of the above
+
+	@Override
+	public void addFirst(E e) {
+		if (!offerFirst(e))
+			throw new IllegalStateException("Deque full");
+	}
+
+	@Override
+	public void addLast(E e) {
+		if (!offerLast(e))
+			throw new IllegalStateException("Deque full");
+	}
+
+	@Override
+	public E removeFirst() {
+		E e = pollFirst();
+		if (e == null)
+			throw new NoSuchElementException();
+		return e;
+	}
+
+	@Override
+	public E removeLast() {
+		E e = pollLast();
+		if (e == null)
+			throw new NoSuchElementException();
+		return e;
+	}
+
+	@Override
+	public E getFirst() {
+		E e = peekFirst();
+		if (e == null)
+			throw new NoSuchElementException();
+		return e;
+	}
+
+	@Override
+	public E getLast() {
+		E e = peekLast();
+		if (e == null)
+			throw new NoSuchElementException();
+		return e;
+	}
+
+	@Override
+	public boolean add(E e) {
+		addLast(e);
+		return true;
+	}
+
+	@Override
+	public boolean offer(E e) { return offerLast(e); }
+
+	@Override
+	public void put(E e) throws InterruptedException { putLast(e); }
+
+	@Override
+	public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		return offerLast(e, timeout, unit);
+	}
+
+	@Override
+	public E remove() { return removeFirst(); }
+
+	@Override
+	public E poll() { return pollFirst(); }
+
+	@Override
+	public E take() throws InterruptedException { return takeFirst(); }
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException { return pollFirst(timeout, unit); }
+
+	@Override
+	public E element() { return getFirst(); }
+
+	@Override
+	public E peek() { return peekFirst(); }
+
+	@Override
+	public void push(E e) { addFirst(e); }
+
+	@Override
+	public E pop() { return removeFirst(); }
+
+	@Override
+	public boolean remove(Object o) { return removeFirstOccurrence(o); }
+
+	@Override
+	public int size() { return count.get(); }
+
+	@Override
+	public int remainingCapacity() { return capacity - count.get(); }
+
+	// iterators, over a copy
+
+	@Override
+	public Iterator<E> iterator() { return new CopyIterator(toArray(), false); }
+
+	@Override
+	public Iterator<E> descendingIterator() { return new CopyIterator(toArray(), true); }
+
+	final class CopyIterator implements Iterator<E> {
+		final Object[] items;
+		final boolean descending;
+		int i = 0;
+		Object lastReturned = null;
+
+		CopyIterator(Object[] items, boolean descending) {
+			this.items = items;
+			this.descending = descending;
+		}
+
+		public boolean hasNext() { return i < items.length; }
+
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			lastReturned = items[descending ? items.length - 1 - i++ : i++];
+			return (E) lastReturned;
+		}
+
+		/**
+		 * Removes the returned element if it is still in the deque, compared by identity.
+		 */
+		public void remove() {
+			if (lastReturned == null)
+				throw new IllegalStateException();
+
+			fullyLock();
+			try {
+				for (DLLNode<E> node = head.next; node != null; node = node.next)
+					if (node.element == lastReturned) {
+						unlink(node);
+						break;
+					}
+			} finally {
+				fullyUnlock();
+			}
+			lastReturned = null;
+		}
+	}
+}
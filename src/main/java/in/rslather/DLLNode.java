@@ -11,8 +11,10 @@ public class DLLNode<E> implements Serializable {
 	private static final long serialVersionUID = 1L;
 
 	E element;
-	DLLNode<E> prev = null;
-	DLLNode<E> next = null;
+	// links are not serialized, the list relinks its nodes when it is read back
+	transient DLLNode<E> prev = null;
+	transient DLLNode<E> next = null;
+	transient DoublyLinkedList.Owner owner = null; // resolves to the list this node is in
 
 	public DLLNode(E item) { this.element = item; }
 
@@ -1,13 +1,19 @@
 package in.rslather;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.AbstractSequentialList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
-import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import in.rslather.utils.DefaultDeque;
 
@@ -23,17 +29,37 @@ public class DoublyLinkedList<E> extends AbstractSequentialList<DLLNode<E>>
 	final DLLNode<E> head = new DLLNode<>();
 	final DLLNode<E> tail = new DLLNode<>();
 	int length = 0;
+	transient Owner owner = new Owner(this); // every node in this list resolves to it, and so does tail
+
+	/**
+	 * Identifies the list a node is in.</br>
+	 * When a whole list is moved (concat) its Owner is forwarded to the Owner of the receiving list instead of
+	 * updating every node, nodes follow the forwarding (and shorten it) the next time they are checked. When a list
+	 * drops all its nodes at once (clear) its Owner is retired and the list gets a new one, a node of a retired Owner
+	 * is settled by its next check, see {@link #settle(DLLNode)}. A range moved to another list (splice) gets an Owner
+	 * of its own forwarding to the receiving list, the rest of the list keeps its Owner.
+	 */
+	static final class Owner implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		DoublyLinkedList<?> list; // null once retired
+		Owner forward = null;
+
+		Owner(DoublyLinkedList<?> list) { this.list = list; }
+	}
 
 	public DoublyLinkedList() {
 		super();
 		head.next = tail;
 		tail.prev = head;
+		tail.owner = owner;
 	}
 
 	public DoublyLinkedList(Collection<? extends DLLNode<E>> c) {
 		super();
 		head.next = tail;
 		tail.prev = head;
+		tail.owner = owner;
 
 		addAll(c);
 	}
@@ -55,8 +81,12 @@ public class DoublyLinkedList<E> extends AbstractSequentialList<DLLNode<E>>
 	/**
 	 * @param node node to be removed
 	 * @return removed node
+	 * @throws IllegalArgumentException if node is not in this list
 	 */
 	public DLLNode<E> removeNode(DLLNode<E> node) {
+		checkOwned(node);
+		node.owner = null;
+
 		DLLNode<E> prev = node.prev;
 		DLLNode<E> next = node.next;
 
@@ -69,10 +99,15 @@ public class DoublyLinkedList<E> extends AbstractSequentialList<DLLNode<E>>
 
 	/**
 	 * @param oldNode node in the linked list to be replaced
-	 * @param newNode replacement node
+	 * @param newNode replacement node, not in any list
 	 * @return oldNode
 	 */
 	public DLLNode<E> replaceNode(DLLNode<E> oldNode, DLLNode<E> newNode) {
+		checkOwned(oldNode);
+		checkFree(newNode);
+		oldNode.owner = null;
+		newNode.owner = owner;
+
 		newNode.next = oldNode.next;
 		newNode.prev = oldNode.prev;
 
@@ -86,9 +121,14 @@ public class DoublyLinkedList<E> extends AbstractSequentialList<DLLNode<E>>
 	 * Insert a node to the right of a given node.
 	 * 
 	 * @param leftNode node in the linked list
-	 * @param newNode  node to be inserted to the right of the leftNode
+	 * @param newNode  node to be inserted to the right of the leftNode, not in any list
 	 */
 	public void insertRight(DLLNode<E> leftNode, DLLNode<E> newNode) {
+		if (leftNode != head)
+			checkOwned(leftNode);
+		checkFree(newNode);
+		newNode.owner = owner;
+
 		DLLNode<E> next = leftNode.next;
 
 		newNode.next = next;
@@ -108,29 +148,239 @@ public class DoublyLinkedList<E> extends AbstractSequentialList<DLLNode<E>>
 	 */
 	public void insertLeft(DLLNode<E> newNode, DLLNode<E> rightNode) { insertRight(rightNode.prev, newNode); }
 
+	/**
+	 * Move the nodes from fromNode to toNode (both inclusive) into target, right after afterNode.</br>
+	 * Within one list this is O(1). Between lists the moved range gets an Owner of its own which forwards to target,
+	 * so it is O(number of moved nodes) and the rest of this list keeps its Owner.
+	 *
+	 * @param fromNode  first node of the range, in this list
+	 * @param toNode    last node of the range, in this list at or after fromNode
+	 * @param target    list receiving the range, may be this list
+	 * @param afterNode node in target (not in the range) to insert after, null to insert at the first position
+	 */
+	public void splice(DLLNode<E> fromNode, DLLNode<E> toNode, DoublyLinkedList<E> target, DLLNode<E> afterNode) {
+		checkCanSplice(target);
+		checkOwned(fromNode);
+		checkOwned(toNode);
+		if (afterNode != null)
+			target.checkOwned(afterNode);
+
+		if (target != this) {
+			Owner moved = new Owner(null);
+			moved.forward = target.owner;
+			int count = 0;
+			for (DLLNode<E> node = fromNode;; node = node.next) {
+				if (node == tail) {
+					// toNode is before fromNode, give the nodes back
+					for (DLLNode<E> n = fromNode; n != tail; n = n.next)
+						n.owner = owner;
+					throw new IllegalArgumentException("toNode is before fromNode");
+				}
+				node.owner = moved;
+				count++;
+				if (node == toNode)
+					break;
+			}
+			length -= count;
+			target.length += count;
+		}
+
+		DLLNode<E> left = (afterNode == null) ? target.head : afterNode;
+
+		fromNode.prev.next = toNode.next;
+		toNode.next.prev = fromNode.prev;
+
+		DLLNode<E> right = left.next;
+		fromNode.prev = left;
+		toNode.next = right;
+		left.next = fromNode;
+		right.prev = toNode;
+	}
+
+	/**
+	 * @param count number of nodes from fromNode to toNode, no longer needed as the moved nodes are counted while
+	 *              they change owner
+	 * @deprecated use {@link #splice(DLLNode, DLLNode, DoublyLinkedList, DLLNode)}
+	 */
+	@Deprecated
+	public void splice(DLLNode<E> fromNode, DLLNode<E> toNode, DoublyLinkedList<E> target, DLLNode<E> afterNode,
+			int count) {
+		splice(fromNode, toNode, target, afterNode);
+	}
+
+	/**
+	 * Move all nodes of other to the end of this list in O(1), other is left empty.
+	 */
+	public void concat(DoublyLinkedList<E> other) {
+		if (other == this)
+			throw new IllegalArgumentException("cannot concat a list to itself");
+		checkCanSplice(other);
+		if (other.isEmpty())
+			return;
+
+		DLLNode<E> first = other.head.next;
+		DLLNode<E> last = other.tail.prev;
+
+		first.prev = tail.prev;
+		tail.prev.next = first;
+		last.next = tail;
+		tail.prev = last;
+
+		length += other.length;
+		other.owner.forward = owner;
+		other.owner = new Owner(other);
+		other.tail.owner = other.owner;
+		other.head.next = other.tail;
+		other.tail.prev = other.head;
+		other.length = 0;
+	}
+
+	/**
+	 * Move all nodes after node into a new list, O(number of moved nodes).
+	 *
+	 * @param node node in this list, it stays the last node of this list
+	 * @return list of the nodes which were after node
+	 */
+	public DoublyLinkedList<E> splitAfter(DLLNode<E> node) {
+		checkOwned(node);
+		DoublyLinkedList<E> rest = new DoublyLinkedList<>();
+		if (node.next != tail)
+			splice(node.next, tail.prev, rest, null);
+		return rest;
+	}
+
+	/**
+	 * @param count number of nodes after node, no longer needed as the moved nodes are counted while they change
+	 *              owner
+	 * @deprecated use {@link #splitAfter(DLLNode)}
+	 */
+	@Deprecated
+	public DoublyLinkedList<E> splitAfter(DLLNode<E> node, int count) { return splitAfter(node); }
+
+	void checkCanSplice(DoublyLinkedList<E> other) {
+		if (!canSplice() || !other.canSplice())
+			throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support splicing");
+	}
+
+	/**
+	 * @return false for subclasses which track nodes in a way a splice can not keep up with
+	 */
+	boolean canSplice() { return true; }
+
+	/**
+	 * @return the list node is in or null, O(1) amortized
+	 */
+	static DoublyLinkedList<?> ownerOf(DLLNode<?> node) {
+		Owner o = rootOf(node);
+		if (o == null)
+			return null;
+		return (o.list != null) ? o.list : settle(node);
+	}
+
+	static Owner rootOf(DLLNode<?> node) {
+		Owner o = node.owner;
+		if (o == null || o.forward == null)
+			return o;
+
+		Owner root = o.forward;
+		while (root.forward != null)
+			root = root.forward;
+		// point the whole chain at the root so the next check is direct
+		while (o != root) {
+			Owner next = o.forward;
+			o.forward = root;
+			o = next;
+		}
+		node.owner = root;
+		return root;
+	}
+
+	/**
+	 * Settles a node whose Owner was retired by a clear. The nodes a clear dropped still link to each other, and the
+	 * last of them to the tail which no longer links back, so the walk forward ends at a link which does not point
+	 * back and the nodes on the way are marked as in no list. Nodes added back since have a live Owner and end the
+	 * walk too.</br>
+	 * A node is walked at most once per clear, so checks stay O(1) amortized.
+	 *
+	 * @return the list node is in or null
+	 */
+	static DoublyLinkedList<?> settle(DLLNode<?> node) {
+		Owner live = null;
+		DLLNode<?> last = node;
+		for (DLLNode<?> next = node.next; next != null && next.prev == last; next = next.next) {
+			Owner o = rootOf(next);
+			if (o == null)
+				break;
+			if (o.list != null) {
+				live = o;
+				break;
+			}
+			last = next;
+		}
+
+		for (DLLNode<?> n = node;; n = n.next) {
+			n.owner = live;
+			if (n == last)
+				break;
+		}
+		return (live == null) ? null : live.list;
+	}
+
+	/**
+	 * @return whether node is in this list, O(1) amortized
+	 */
+	public boolean owns(DLLNode<?> node) {
+		return node != null && node != head && node != tail && ownerOf(node) == this;
+	}
+
+	void checkOwned(DLLNode<?> node) {
+		if (!owns(node))
+			throw new IllegalArgumentException(node + " is not in this list");
+	}
+
+	static void checkFree(DLLNode<?> node) {
+		if (ownerOf(node) != null)
+			throw new IllegalArgumentException(node + " is already in a list");
+	}
+
+	/**
+	 * @return node at index walking from the first node, null if index is out of range
+	 */
 	protected DLLNode<E> getForward(int index) {
-		int i = 0;
-		for (DLLNode<E> node : this)
-			if (index == i++)
-				return node;
-		return null;
+		if (index < 0 || index >= size())
+			return null;
+
+		DLLNode<E> node = head.next;
+		for (int i = 0; i < index; i++)
+			node = node.next;
+		return node;
 	}
 
+	/**
+	 * @return node at index walking from the last node, null if index is out of range
+	 */
 	protected DLLNode<E> getBackward(int index) {
-		int i = size() - 1;
-		for (Iterator<DLLNode<E>> revItr = descendingIterator(); revItr.hasNext();) {
-			DLLNode<E> node = revItr.next();
-			if (index == i--)
-				return node;
-		}
-		return null;
+		if (index < 0 || index >= size())
+			return null;
+
+		DLLNode<E> node = tail.prev;
+		for (int i = size() - 1; i > index; i--)
+			node = node.prev;
+		return node;
 	}
 
 	@Override
 	// overriding because of optimization
 	protected void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex >= toIndex)
+			return;
+
 		DLLNode<E> left = get(fromIndex); // inclusive
-		DLLNode<E> right = (toIndex == size()) ? tail : get(toIndex); // exclusive
+		DLLNode<E> right = left; // exclusive
+		for (int i = fromIndex; i < toIndex; i++) {
+			right.owner = null;
+			right = right.next;
+		}
 
 		length -= toIndex - fromIndex;
 
@@ -144,6 +394,11 @@ public class DoublyLinkedList<E> extends AbstractSequentialList<DLLNode<E>>
 		head.next = tail;
 		tail.prev = head;
 		length = 0;
+
+		// the removed nodes still point at the old owner
+		owner.list = null;
+		owner = new Owner(this);
+		tail.owner = owner;
 	}
 
 	@Override
@@ -173,13 +428,14 @@ public class DoublyLinkedList<E> extends AbstractSequentialList<DLLNode<E>>
 	public DLLNode<E> peekLast() { return tail.prev; }
 
 	@Override
+	@SuppressWarnings("unchecked")
+	// a node can only be in the list once, so this is O(1)
 	public boolean removeFirstOccurrence(Object o) {
-		for (DLLNode<E> node : this)
-			if (node == o) {
-				removeNode(node);
-				return true;
-			}
-		return false;
+		if (!contains(o))
+			return false;
+
+		removeNode((DLLNode<E>) o);
+		return true;
 	}
 
 	@Override
@@ -191,17 +447,14 @@ public class DoublyLinkedList<E> extends AbstractSequentialList<DLLNode<E>>
 
 	@Override
 	// overriding because we need to use == to do equals check
-	public boolean contains(Object o) {
-		for (DLLNode<E> node : this)
-			if (node == o)
-				return true;
-
-		return false;
-	}
+	public boolean contains(Object o) { return (o instanceof DLLNode) && owns((DLLNode<?>) o); }
 
 	@Override
 	public int size() { return length; }
 
+	@Override
+	public boolean isEmpty() { return head.next == tail; }
+
 	@Override
 	// overriding because of optimization
 	public DLLNode<E> get(int index) {
@@ -231,6 +484,144 @@ public class DoublyLinkedList<E> extends AbstractSequentialList<DLLNode<E>>
 
 	// iterators
 
+	/**
+	 * Walks the nodes from first to last without creating an iterator. action must not remove nodes other than the
+	 * one it was given.
+	 */
+	public void forEachNode(Consumer<? super DLLNode<E>> action) {
+		for (DLLNode<E> node = head.next, next; node != tail; node = next) {
+			next = node.next;
+			action.accept(node);
+		}
+	}
+
+	/**
+	 * Walks the items from first to last without creating an iterator.
+	 */
+	public void forEachItem(Consumer<? super E> action) {
+		for (DLLNode<E> node = head.next; node != tail; node = node.next)
+			action.accept(node.element);
+	}
+
+	@Override
+	// overriding because of optimization
+	public void forEach(Consumer<? super DLLNode<E>> action) { forEachNode(action); }
+
+	@Override
+	// overriding because of optimization
+	public boolean removeIf(Predicate<? super DLLNode<E>> filter) {
+		boolean removed = false;
+		for (DLLNode<E> node = head.next, next; node != tail; node = next) {
+			next = node.next;
+			if (filter.test(node)) {
+				removeNode(node);
+				removed = true;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Removes the nodes whose items match filter, without creating an iterator.
+	 *
+	 * @return true if any node was removed
+	 */
+	public boolean removeItemsIf(Predicate<? super E> filter) {
+		boolean removed = false;
+		for (DLLNode<E> node = head.next, next; node != tail; node = next) {
+			next = node.next;
+			if (filter.test(node.element)) {
+				removeNode(node);
+				removed = true;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * @return a new cursor before the first node of this list
+	 */
+	public Cursor<E> cursor() { return new Cursor<>(this); }
+
+	/**
+	 * A position in a list which can be moved forward and backward and reset, so one object serves any number of
+	 * scans (of any list) without allocating.</br>
+	 * It stands on a node, or before the first node (after {@link #reset()}) or after the last one (after
+	 * {@link #resetToEnd()}). Nodes other than the current one must not be removed from the list while scanning.
+	 *
+	 * <pre>
+	 * while (cursor.next())
+	 * 	sum += cursor.item();
+	 * cursor.reset();
+	 * </pre>
+	 *
+	 * @param <E>
+	 */
+	public static final class Cursor<E> {
+		DoublyLinkedList<E> list;
+		DLLNode<E> node;
+
+		public Cursor(DoublyLinkedList<E> list) { reset(list); }
+
+		/**
+		 * Moves before the first node.
+		 */
+		public void reset() { node = list.head; }
+
+		/**
+		 * Moves before the first node of another list.
+		 */
+		public void reset(DoublyLinkedList<E> list) {
+			this.list = list;
+			node = list.head;
+		}
+
+		/**
+		 * Moves after the last node, for scanning backward with {@link #previous()}.
+		 */
+		public void resetToEnd() { node = list.tail; }
+
+		/**
+		 * @return false when there is no next node, the cursor is then after the last node
+		 */
+		public boolean next() {
+			if (node != list.tail)
+				node = node.next;
+			return node != list.tail;
+		}
+
+		/**
+		 * @return false when there is no previous node, the cursor is then before the first node
+		 */
+		public boolean previous() {
+			if (node != list.head)
+				node = node.prev;
+			return node != list.head;
+		}
+
+		/**
+		 * @return the current node
+		 * @throws NoSuchElementException when the cursor is not on a node
+		 */
+		public DLLNode<E> node() {
+			if (node == list.head || node == list.tail)
+				throw new NoSuchElementException();
+			return node;
+		}
+
+		public E item() { return node().element; }
+
+		/**
+		 * Removes the current node, the cursor moves back to the node before it, so next() continues with the node
+		 * after it.
+		 */
+		public void remove() {
+			DLLNode<E> removed = node();
+			node = removed.prev;
+			list.removeNode(removed);
+		}
+	}
+
 	@Override
 	public Iterator<DLLNode<E>> descendingIterator() {
 		return new Iterator<DLLNode<E>>() {
@@ -320,22 +711,122 @@ public class DoublyLinkedList<E> extends AbstractSequentialList<DLLNode<E>>
 		};
 	}
 
-	// Bulk methods
-
 	@Override
-	// overriding because of optimization
-	public boolean containsAll(Collection<?> c) {
-		if (c.size() <= 0)
+	public Spliterator<DLLNode<E>> spliterator() { return new NodeSpliterator<>(this); }
+
+	/**
+	 * Walks the nodes directly and splits off arrays of arithmetically growing size (1024, 2048, ...), so that the
+	 * sequential walk is shared out in balanced batches. Binds to the list at the first traversal or split.
+	 */
+	static final class NodeSpliterator<E> implements Spliterator<DLLNode<E>> {
+		static final int BATCH_UNIT = 1 << 10;
+		static final int MAX_BATCH = 1 << 25;
+
+		final DoublyLinkedList<E> list;
+		DLLNode<E> current; // next node to return, null until bound
+		int remaining = -1; // -1 until bound
+		int batch = 0;
+
+		NodeSpliterator(DoublyLinkedList<E> list) { this.list = list; }
+
+		int bind() {
+			if (remaining < 0) {
+				current = list.head.next;
+				remaining = list.size();
+			}
+			return remaining;
+		}
+
+		@Override
+		public long estimateSize() { return bind(); }
+
+		@Override
+		public int characteristics() { return ORDERED | SIZED | SUBSIZED; }
+
+		@Override
+		public boolean tryAdvance(Consumer<? super DLLNode<E>> action) {
+			if (bind() <= 0)
+				return false;
+
+			DLLNode<E> node = current;
+			current = node.next;
+			remaining--;
+			action.accept(node);
 			return true;
+		}
 
-		if (c.size() > size())
-			return false;
+		@Override
+		public void forEachRemaining(Consumer<? super DLLNode<E>> action) {
+			int n = bind();
+			DLLNode<E> node = current;
+			for (; n > 0; n--) {
+				action.accept(node);
+				node = node.next;
+			}
+			current = node;
+			remaining = 0;
+		}
+
+		@Override
+		public Spliterator<DLLNode<E>> trySplit() {
+			int n = Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), bind());
+			if (n <= 1)
+				return null;
+
+			Object[] nodes = new Object[n];
+			DLLNode<E> node = current;
+			for (int i = 0; i < n; i++) {
+				nodes[i] = node;
+				node = node.next;
+			}
+			current = node;
+			remaining -= n;
+			batch = n;
+			return Spliterators.spliterator(nodes, 0, n, ORDERED);
+		}
+	}
+
+	// Serialization
+
+	/**
+	 * Writes length followed by the nodes one at a time, nodes do not serialize their links so the stack depth does
+	 * not grow with the list.
+	 */
+	private void writeObject(ObjectOutputStream s) throws IOException {
+		s.defaultWriteObject();
+		for (DLLNode<E> node = head.next; node != tail; node = node.next)
+			s.writeObject(node);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		if (length < 0)
+			throw new InvalidObjectException("negative length " + length);
+
+		owner = new Owner(this);
+		tail.owner = owner;
+		DLLNode<E> last = head;
+		for (int i = 0; i < length; i++) {
+			DLLNode<E> node = (DLLNode<E>) s.readObject();
+			node.owner = owner;
+			node.prev = last;
+			last.next = node;
+			last = node;
+		}
+		last.next = tail;
+		tail.prev = last;
+	}
 
-		Set<Object> set = new HashSet<>(c); // making a shallow copy
+	// Bulk methods
 
-		for (DLLNode<E> node : this)
-			set.remove(node);
+	@Override
+	// overriding because of optimization
+	public boolean containsAll(Collection<?> c) {
+		for (Object o : c)
+			if (!contains(o))
+				return false;
 
-		return set.size() == 0;
+		return true;
 	}
 }
@@ -0,0 +1,23 @@
+package in.rslather;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A DLLNode which is also a node of the treap used by {@link IndexedDoublyLinkedList} to find positions.
+ *
+ * @param <E>
+ */
+public class IndexedDLLNode<E> extends DLLNode<E> {
+	private static final long serialVersionUID = 1L;
+
+	// the treap is not serialized, IndexedDoublyLinkedList rebuilds it when it is read back
+	transient IndexedDLLNode<E> left = null;
+	transient IndexedDLLNode<E> right = null;
+	transient IndexedDLLNode<E> parent = null;
+	transient int priority = ThreadLocalRandom.current().nextInt();
+	transient int count = 1; // number of nodes in the subtree rooted here
+
+	public IndexedDLLNode(E item) { super(item); }
+
+	public IndexedDLLNode() { super(); }
+}
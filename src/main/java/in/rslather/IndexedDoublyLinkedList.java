@@ -0,0 +1,300 @@
+package in.rslather;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.ListIterator;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A DoublyLinkedList which also keeps its nodes in an implicit treap (a randomly balanced binary tree ordered by list
+ * position, where every node knows the size of its subtree).</br>
+ * Positional access (get, set, add, remove by index, listIterator) and the index of a node are O(log n) expected
+ * instead of O(n).</br>
+ * The price is that insertions and removals of nodes become O(log n) expected instead of O(1), replaceNode stays
+ * O(1).</br>
+ * Every node added to this list must be an {@link IndexedDLLNode}.
+ *
+ * @param <E>
+ */
+public class IndexedDoublyLinkedList<E> extends DoublyLinkedList<E> {
+	private static final long serialVersionUID = 1L;
+
+	transient IndexedDLLNode<E> root;
+
+	public IndexedDoublyLinkedList() { super(); }
+
+	public IndexedDoublyLinkedList(Collection<? extends IndexedDLLNode<E>> c) { super(c); }
+
+	/**
+	 * @param node any node
+	 * @return index of node in this list or -1 if node is not in this list
+	 */
+	public int indexOfNode(DLLNode<?> node) {
+		if (!owns(node))
+			return -1;
+
+		IndexedDLLNode<?> n = (IndexedDLLNode<?>) node;
+		int index = count(n.left);
+		for (; n.parent != null; n = n.parent)
+			if (n == n.parent.right)
+				index += count(n.parent.left) + 1;
+
+		return index;
+	}
+
+	@Override
+	public DLLNode<E> removeNode(DLLNode<E> node) {
+		super.removeNode(node);
+		treeRemove(indexed(node));
+		return node;
+	}
+
+	@Override
+	public DLLNode<E> replaceNode(DLLNode<E> oldNode, DLLNode<E> newNode) {
+		super.replaceNode(oldNode, newNode);
+		treeReplace(indexed(oldNode), indexed(newNode));
+		return oldNode;
+	}
+
+	@Override
+	public void insertRight(DLLNode<E> leftNode, DLLNode<E> newNode) {
+		indexed(newNode);
+		super.insertRight(leftNode, newNode);
+		treeInsertAfter((leftNode == head) ? null : indexed(leftNode), indexed(newNode));
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex >= toIndex)
+			return;
+
+		DLLNode<E> node = get(fromIndex);
+		for (int i = fromIndex; i < toIndex; i++) {
+			DLLNode<E> next = node.next;
+			removeNode(node);
+			node = next;
+		}
+	}
+
+	@Override
+	// splicing would need every moved node to move in the treap as well
+	boolean canSplice() { return false; }
+
+	@Override
+	public void clear() {
+		super.clear();
+		root = null;
+	}
+
+	@Override
+	public int indexOf(Object o) { return indexOfNode(asNode(o)); }
+
+	@Override
+	public int lastIndexOf(Object o) { return indexOfNode(asNode(o)); }
+
+	@Override
+	public DLLNode<E> get(int index) {
+		if (index < 0 || index >= size())
+			throw new IndexOutOfBoundsException();
+
+		IndexedDLLNode<E> n = root;
+		for (;;) {
+			int leftCount = count(n.left);
+			if (index < leftCount)
+				n = n.left;
+			else if (index == leftCount)
+				return n;
+			else {
+				index -= leftCount + 1;
+				n = n.right;
+			}
+		}
+	}
+
+	@Override
+	public ListIterator<DLLNode<E>> listIterator(int index) {
+		if (index < 0 || index > size())
+			throw new IndexOutOfBoundsException();
+
+		return listIterator((index == size()) ? tail : get(index), index);
+	}
+
+	/**
+	 * The nodes come back linked but without a treap, it is rebuilt in one pass with fresh priorities.
+	 */
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+
+		// Cartesian tree construction: the stack holds the right spine, a node popped off it is complete
+		ArrayDeque<IndexedDLLNode<E>> spine = new ArrayDeque<>();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (DLLNode<E> n = head.next; n != tail; n = n.next) {
+			IndexedDLLNode<E> node = indexed(n);
+			node.priority = random.nextInt();
+			node.left = null;
+			node.right = null;
+			node.parent = null;
+
+			IndexedDLLNode<E> last = null;
+			while (!spine.isEmpty() && spine.peek().priority < node.priority) {
+				last = spine.pop();
+				update(last);
+			}
+
+			node.left = last;
+			if (last != null)
+				last.parent = node;
+			if (!spine.isEmpty()) {
+				spine.peek().right = node;
+				node.parent = spine.peek();
+			}
+			spine.push(node);
+		}
+
+		root = null;
+		while (!spine.isEmpty()) {
+			root = spine.pop();
+			update(root);
+		}
+	}
+
+	// treap
+
+	static int count(IndexedDLLNode<?> n) { return (n == null) ? 0 : n.count; }
+
+	static void update(IndexedDLLNode<?> n) { n.count = 1 + count(n.left) + count(n.right); }
+
+	static DLLNode<?> asNode(Object o) { return (o instanceof DLLNode) ? (DLLNode<?>) o : null; }
+
+	@SuppressWarnings("unchecked")
+	static <E> IndexedDLLNode<E> indexed(DLLNode<E> node) {
+		if (!(node instanceof IndexedDLLNode))
+			throw new IllegalArgumentException("IndexedDoublyLinkedList only accepts IndexedDLLNode");
+		return (IndexedDLLNode<E>) node;
+	}
+
+	/**
+	 * @param left node to insert after, null to insert at the first position
+	 */
+	void treeInsertAfter(IndexedDLLNode<E> left, IndexedDLLNode<E> node) {
+		node.left = null;
+		node.right = null;
+		node.parent = null;
+		node.count = 1;
+
+		if (root == null) {
+			root = node;
+			return;
+		}
+
+		// attach as a leaf at the position right after left
+		IndexedDLLNode<E> p;
+		if (left != null && left.right == null) {
+			p = left;
+			p.right = node;
+		} else {
+			p = (left == null) ? root : left.right;
+			while (p.left != null)
+				p = p.left;
+			p.left = node;
+		}
+		node.parent = p;
+
+		for (IndexedDLLNode<E> q = p; q != null; q = q.parent)
+			q.count++;
+
+		while (node.parent != null && node.priority > node.parent.priority)
+			rotateUp(node);
+	}
+
+	void treeRemove(IndexedDLLNode<E> node) {
+		IndexedDLLNode<E> child = merge(node.left, node.right);
+		IndexedDLLNode<E> p = node.parent;
+		if (child != null)
+			child.parent = p;
+		replaceChild(p, node, child);
+
+		for (IndexedDLLNode<E> q = p; q != null; q = q.parent)
+			q.count--;
+
+		node.left = null;
+		node.right = null;
+		node.parent = null;
+		node.count = 1;
+	}
+
+	void treeReplace(IndexedDLLNode<E> oldNode, IndexedDLLNode<E> newNode) {
+		newNode.left = oldNode.left;
+		newNode.right = oldNode.right;
+		newNode.parent = oldNode.parent;
+		newNode.priority = oldNode.priority;
+		newNode.count = oldNode.count;
+
+		if (newNode.left != null)
+			newNode.left.parent = newNode;
+		if (newNode.right != null)
+			newNode.right.parent = newNode;
+		replaceChild(newNode.parent, oldNode, newNode);
+
+		oldNode.left = null;
+		oldNode.right = null;
+		oldNode.parent = null;
+		oldNode.count = 1;
+	}
+
+	void replaceChild(IndexedDLLNode<E> p, IndexedDLLNode<E> oldChild, IndexedDLLNode<E> newChild) {
+		if (p == null)
+			root = newChild;
+		else if (p.left == oldChild)
+			p.left = newChild;
+		else
+			p.right = newChild;
+	}
+
+	void rotateUp(IndexedDLLNode<E> x) {
+		IndexedDLLNode<E> p = x.parent;
+
+		if (x == p.left) {
+			p.left = x.right;
+			if (x.right != null)
+				x.right.parent = p;
+			x.right = p;
+		} else {
+			p.right = x.left;
+			if (x.left != null)
+				x.left.parent = p;
+			x.left = p;
+		}
+
+		x.parent = p.parent;
+		replaceChild(p.parent, p, x);
+		p.parent = x;
+
+		update(p);
+		update(x);
+	}
+
+	/**
+	 * @return root of the treap holding all nodes of a followed by all nodes of b
+	 */
+	IndexedDLLNode<E> merge(IndexedDLLNode<E> a, IndexedDLLNode<E> b) {
+		if (a == null)
+			return b;
+		if (b == null)
+			return a;
+
+		if (a.priority > b.priority) {
+			a.right = merge(a.right, b);
+			a.right.parent = a;
+			update(a);
+			return a;
+		}
+
+		b.left = merge(a, b.left);
+		b.left.parent = b;
+		update(b);
+		return b;
+	}
+}
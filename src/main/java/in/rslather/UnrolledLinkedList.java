@@ -0,0 +1,656 @@
+package in.rslather;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSequentialList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import in.rslather.utils.DefaultDeque;
+
+/**
+ * A Doubly Linked List of chunks, every chunk holds up to chunkSize elements in an array.</br>
+ * Iteration reads elements from consecutive array slots and a seek by index skips whole chunks, so both touch about
+ * chunkSize times fewer objects than a list with one node per element, and an element costs one array slot. A full
+ * chunk is split in half when an element is inserted into it (appending at either end of it opens a new chunk
+ * instead), a chunk which drops below a quarter full is merged with a neighbor when both fit into three quarters of
+ * a chunk.</br>
+ * Elements shift between slots and chunks, so they are identified by {@link Handle}s, which follow their element
+ * until it is removed. Handles are only created on request, removing through one is O(chunkSize).
+ *
+ * @param <E>
+ */
+public class UnrolledLinkedList<E> extends AbstractSequentialList<E> implements DefaultDeque<E>, Serializable {
+	private static final long serialVersionUID = 1L;
+	static final int DEFAULT_CHUNK_SIZE = 64;
+	static final int MIN_CHUNK_SIZE = 4;
+
+	final int chunkSize;
+	transient Chunk sentinel; // next is the first chunk and prev is the last chunk, never holds elements
+	transient int length;
+
+	// position left behind by the last insert (the inserted element) or remove (the element after the removed one)
+	transient Chunk atChunk;
+	transient int atSlot;
+
+	static final class Chunk {
+		final Object[] items;
+		Handle<?>[] handles = null; // created with the first handle of an element in this chunk
+		int count = 0;
+		Chunk prev = this;
+		Chunk next = this;
+
+		Chunk(int capacity) { items = new Object[capacity]; }
+	}
+
+	/**
+	 * Identifies an element of an UnrolledLinkedList while it moves between slots and chunks.
+	 *
+	 * @param <E>
+	 */
+	public static final class Handle<E> {
+		UnrolledLinkedList<E> list; // null once the element is removed
+		Chunk chunk;
+		int slot;
+
+		Handle(UnrolledLinkedList<E> list, Chunk chunk, int slot) {
+			this.list = list;
+			this.chunk = chunk;
+			this.slot = slot;
+		}
+
+		/**
+		 * @return false once the element has been removed from its list
+		 */
+		public boolean isLinked() { return list != null; }
+	}
+
+	public UnrolledLinkedList() { this(DEFAULT_CHUNK_SIZE); }
+
+	/**
+	 * @param chunkSize maximum number of elements in a chunk, at least 4
+	 */
+	public UnrolledLinkedList(int chunkSize) {
+		super();
+		if (chunkSize < MIN_CHUNK_SIZE)
+			throw new IllegalArgumentException("chunkSize must be at least " + MIN_CHUNK_SIZE);
+
+		this.chunkSize = chunkSize;
+		init();
+	}
+
+	public UnrolledLinkedList(Collection<? extends E> c) {
+		this(DEFAULT_CHUNK_SIZE);
+		addAll(c);
+	}
+
+	void init() {
+		sentinel = new Chunk(0);
+		length = 0;
+	}
+
+	public int chunkSize() { return chunkSize; }
+
+	// handle operations
+
+	/**
+	 * @return handle of the inserted element
+	 */
+	public Handle<E> linkFirst(E item) {
+		addFirst(item);
+		return handleOf(atChunk, atSlot);
+	}
+
+	/**
+	 * @return handle of the inserted element
+	 */
+	public Handle<E> linkLast(E item) {
+		addLast(item);
+		return handleOf(atChunk, atSlot);
+	}
+
+	/**
+	 * @return handle of the element at index, the same handle every time while the element is in the list
+	 */
+	public Handle<E> handleAt(int index) {
+		checkIndex(index, size());
+		Chunk chunk = locate(index);
+		return handleOf(chunk, atSlot);
+	}
+
+	@SuppressWarnings("unchecked")
+	public E getItem(Handle<E> handle) {
+		checkHandle(handle);
+		return (E) handle.chunk.items[handle.slot];
+	}
+
+	/**
+	 * @return replaced element
+	 */
+	public E replaceNode(Handle<E> handle, E item) {
+		E old = getItem(handle);
+		handle.chunk.items[handle.slot] = item;
+		return old;
+	}
+
+	/**
+	 * @param handle handle of the element to be removed, it stops being linked
+	 * @return removed element
+	 */
+	public E removeNode(Handle<E> handle) {
+		checkHandle(handle);
+		return removeAt(handle.chunk, handle.slot);
+	}
+
+	/**
+	 * Insert an element to the right of a given element.
+	 *
+	 * @param left handle of an element in the list or null to insert at the first position
+	 * @return handle of the inserted element
+	 */
+	public Handle<E> insertRight(Handle<E> left, E item) {
+		if (left == null)
+			return linkFirst(item);
+
+		checkHandle(left);
+		insert(left.chunk, left.slot + 1, item);
+		return handleOf(atChunk, atSlot);
+	}
+
+	/**
+	 * Insert an element to the left of a given element.
+	 *
+	 * @param right handle of an element in the list or null to insert at the last position
+	 * @return handle of the inserted element
+	 */
+	public Handle<E> insertLeft(E item, Handle<E> right) {
+		if (right == null)
+			return linkLast(item);
+
+		checkHandle(right);
+		insert(right.chunk, right.slot, item);
+		return handleOf(atChunk, atSlot);
+	}
+
+	void checkHandle(Handle<?> handle) {
+		if (handle.list != this)
+			throw new IllegalArgumentException("handle is not of an element in this list");
+	}
+
+	@SuppressWarnings("unchecked")
+	Handle<E> handleOf(Chunk chunk, int slot) {
+		if (chunk.handles == null)
+			chunk.handles = new Handle<?>[chunk.items.length];
+
+		Handle<E> handle = (Handle<E>) chunk.handles[slot];
+		if (handle == null)
+			chunk.handles[slot] = handle = new Handle<>(this, chunk, slot);
+		return handle;
+	}
+
+	// chunk operations
+
+	Chunk linkChunkAfter(Chunk left) {
+		Chunk chunk = new Chunk(chunkSize);
+		chunk.prev = left;
+		chunk.next = left.next;
+		left.next.prev = chunk;
+		left.next = chunk;
+		return chunk;
+	}
+
+	static void unlinkChunk(Chunk chunk) {
+		chunk.prev.next = chunk.next;
+		chunk.next.prev = chunk.prev;
+	}
+
+	/**
+	 * Moves n elements together with their handles, the ranges may overlap when both are in one chunk. Slots which
+	 * are not in use must hold no element and no handle, so a chunk without handles can move into one with handles.
+	 */
+	static void move(Chunk from, int fromSlot, Chunk to, int toSlot, int n) {
+		System.arraycopy(from.items, fromSlot, to.items, toSlot, n);
+		if (from.handles == null)
+			return;
+
+		if (to.handles == null)
+			to.handles = new Handle<?>[to.items.length];
+		System.arraycopy(from.handles, fromSlot, to.handles, toSlot, n);
+		for (int i = toSlot; i < toSlot + n; i++) {
+			Handle<?> handle = to.handles[i];
+			if (handle != null) {
+				handle.chunk = to;
+				handle.slot = i;
+			}
+		}
+	}
+
+	static void clearSlots(Chunk chunk, int from, int to) {
+		Arrays.fill(chunk.items, from, to, null);
+		if (chunk.handles != null)
+			Arrays.fill(chunk.handles, from, to, null);
+	}
+
+	/**
+	 * @return the chunk holding the element at index, its slot is left in atSlot
+	 */
+	Chunk locate(int index) {
+		if (index < length - index) {
+			Chunk chunk = sentinel.next;
+			while (index >= chunk.count) {
+				index -= chunk.count;
+				chunk = chunk.next;
+			}
+			atSlot = index;
+			return chunk;
+		}
+
+		int fromEnd = length - 1 - index;
+		Chunk chunk = sentinel.prev;
+		while (fromEnd >= chunk.count) {
+			fromEnd -= chunk.count;
+			chunk = chunk.prev;
+		}
+		atSlot = chunk.count - 1 - fromEnd;
+		return chunk;
+	}
+
+	/**
+	 * Inserts item at index, index == size() appends.
+	 */
+	void insertAt(int index, Object item) {
+		if (length == 0)
+			insert(linkChunkAfter(sentinel), 0, item);
+		else if (index == length)
+			insert(sentinel.prev, sentinel.prev.count, item);
+		else {
+			Chunk chunk = locate(index);
+			insert(chunk, atSlot, item);
+		}
+	}
+
+	/**
+	 * Inserts item into chunk before slot (slot == count appends to the chunk), the position of item is left in
+	 * atChunk and atSlot.
+	 */
+	void insert(Chunk chunk, int slot, Object item) {
+		if (chunk.count == chunkSize) {
+			if (slot == chunkSize) {
+				// appending, the next chunk may have room at its start
+				if (chunk.next == sentinel || chunk.next.count == chunkSize)
+					linkChunkAfter(chunk);
+				chunk = chunk.next;
+				slot = 0;
+			} else if (slot == 0) {
+				// prepending, the previous chunk may have room at its end
+				if (chunk.prev == sentinel || chunk.prev.count == chunkSize)
+					linkChunkAfter(chunk.prev);
+				chunk = chunk.prev;
+				slot = chunk.count;
+			} else {
+				int half = chunkSize >>> 1;
+				Chunk right = linkChunkAfter(chunk);
+				move(chunk, half, right, 0, chunkSize - half);
+				right.count = chunkSize - half;
+				clearSlots(chunk, half, chunkSize);
+				chunk.count = half;
+				if (slot > half) {
+					chunk = right;
+					slot -= half;
+				}
+			}
+		}
+
+		move(chunk, slot, chunk, slot + 1, chunk.count - slot);
+		chunk.items[slot] = item;
+		if (chunk.handles != null)
+			chunk.handles[slot] = null;
+		chunk.count++;
+
+		length++;
+		modCount++;
+		atChunk = chunk;
+		atSlot = slot;
+	}
+
+	/**
+	 * Removes the element in slot of chunk, the position of the element which followed it is left in atChunk and
+	 * atSlot (the sentinel and 0 when it was the last element).
+	 */
+	@SuppressWarnings("unchecked")
+	E removeAt(Chunk chunk, int slot) {
+		E item = (E) chunk.items[slot];
+		if (chunk.handles != null && chunk.handles[slot] != null) {
+			chunk.handles[slot].list = null;
+			chunk.handles[slot].chunk = null;
+			chunk.handles[slot] = null;
+		}
+
+		move(chunk, slot + 1, chunk, slot, chunk.count - slot - 1);
+		chunk.count--;
+		clearSlots(chunk, chunk.count, chunk.count + 1);
+
+		length--;
+		modCount++;
+		atChunk = chunk;
+		atSlot = slot;
+
+		if (chunk.count == 0) {
+			unlinkChunk(chunk);
+			atChunk = chunk.next;
+			atSlot = 0;
+		} else if (chunk.count < chunkSize / 4)
+			mergeWithNeighbor(chunk);
+
+		if (atChunk != sentinel && atSlot == atChunk.count) {
+			atChunk = atChunk.next;
+			atSlot = 0;
+		}
+		return item;
+	}
+
+	/**
+	 * Merges the right one of two neighboring chunks into the left one, if both fit into three quarters of a chunk.
+	 */
+	void mergeWithNeighbor(Chunk chunk) {
+		int limit = chunkSize - chunkSize / 4;
+		Chunk left;
+		Chunk right;
+		if (chunk.next != sentinel && chunk.count + chunk.next.count <= limit) {
+			left = chunk;
+			right = chunk.next;
+		} else if (chunk.prev != sentinel && chunk.prev.count + chunk.count <= limit) {
+			left = chunk.prev;
+			right = chunk;
+		} else
+			return;
+
+		if (atChunk == right) {
+			atChunk = left;
+			atSlot += left.count;
+		}
+		move(right, 0, left, left.count, right.count);
+		left.count += right.count;
+		unlinkChunk(right);
+	}
+
+	// List and Deque
+
+	@Override
+	// overriding because of optimization
+	public void clear() {
+		for (Chunk chunk = sentinel.next; chunk != sentinel; chunk = chunk.next)
+			if (chunk.handles != null)
+				for (int i = 0; i < chunk.count; i++)
+					if (chunk.handles[i] != null) {
+						chunk.handles[i].list = null;
+						chunk.handles[i].chunk = null;
+					}
+
+		sentinel.next = sentinel;
+		sentinel.prev = sentinel;
+		length = 0;
+		modCount++;
+	}
+
+	@Override
+	public void addFirst(E e) {
+		if (length == 0)
+			insert(linkChunkAfter(sentinel), 0, e);
+		else
+			insert(sentinel.next, 0, e);
+	}
+
+	@Override
+	public void addLast(E e) { insertAt(length, e); }
+
+	@Override
+	public E pollFirst() {
+		if (isEmpty())
+			return null;
+		return removeAt(sentinel.next, 0);
+	}
+
+	@Override
+	public E pollLast() {
+		if (isEmpty())
+			return null;
+		return removeAt(sentinel.prev, sentinel.prev.count - 1);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E peekFirst() { return isEmpty() ? null : (E) sentinel.next.items[0]; }
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E peekLast() { return isEmpty() ? null : (E) sentinel.prev.items[sentinel.prev.count - 1]; }
+
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		for (Chunk chunk = sentinel.next; chunk != sentinel; chunk = chunk.next)
+			for (int i = 0; i < chunk.count; i++)
+				if (Objects.equals(o, chunk.items[i])) {
+					removeAt(chunk, i);
+					return true;
+				}
+		return false;
+	}
+
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		for (Chunk chunk = sentinel.prev; chunk != sentinel; chunk = chunk.prev)
+			for (int i = chunk.count - 1; i >= 0; i--)
+				if (Objects.equals(o, chunk.items[i])) {
+					removeAt(chunk, i);
+					return true;
+				}
+		return false;
+	}
+
+	@Override
+	public boolean remove(Object o) { return removeFirstOccurrence(o); }
+
+	@Override
+	public int size() { return length; }
+
+	@Override
+	// overriding because of optimization
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		checkIndex(index, size());
+		Chunk chunk = locate(index);
+		return (E) chunk.items[atSlot];
+	}
+
+	@Override
+	// overriding because of optimization
+	@SuppressWarnings("unchecked")
+	public E set(int index, E element) {
+		checkIndex(index, size());
+		Chunk chunk = locate(index);
+		E old = (E) chunk.items[atSlot];
+		chunk.items[atSlot] = element;
+		return old;
+	}
+
+	@Override
+	// overriding because of optimization
+	public void add(int index, E element) {
+		checkIndex(index, size() + 1);
+		insertAt(index, element);
+	}
+
+	@Override
+	// overriding because of optimization
+	public E remove(int index) {
+		checkIndex(index, size());
+		Chunk chunk = locate(index);
+		return removeAt(chunk, atSlot);
+	}
+
+	static void checkIndex(int index, int bound) {
+		if (index < 0 || index >= bound)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+	}
+
+	// iterators
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(Consumer<? super E> action) {
+		for (Chunk chunk = sentinel.next; chunk != sentinel; chunk = chunk.next)
+			for (int i = 0; i < chunk.count; i++)
+				action.accept((E) chunk.items[i]);
+	}
+
+	@Override
+	public Iterator<E> descendingIterator() {
+		return new Iterator<E>() {
+			ListIterator<E> itr = listIterator(size());
+
+			public boolean hasNext() { return itr.hasPrevious(); }
+
+			public E next() { return itr.previous(); }
+
+			public void remove() { itr.remove(); }
+		};
+	}
+
+	@Override
+	public ListIterator<E> listIterator(int index) {
+		checkIndex(index, size() + 1);
+		if (index == size())
+			return listIterator(sentinel, 0, index);
+
+		Chunk chunk = locate(index);
+		return listIterator(chunk, atSlot, index);
+	}
+
+	/**
+	 * @param chunk chunk of the first element to be returned by a call to next(), the sentinel when index is size()
+	 * @param slot  slot of that element
+	 * @param index index of that element, 0 <= index <= size()
+	 */
+	ListIterator<E> listIterator(Chunk chunk, int slot, int index) {
+		return new ListIterator<E>() {
+			// position of the next element
+			Chunk currChunk = chunk;
+			int currSlot = slot;
+			int nextI = index;
+
+			// position of the last returned element, null after add or remove
+			Chunk oldChunk = null;
+			int oldSlot;
+			boolean isForward;
+
+			public boolean hasNext() { return nextI < size(); }
+
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				isForward = true;
+
+				oldChunk = currChunk;
+				oldSlot = currSlot;
+				if (++currSlot == currChunk.count) {
+					currChunk = currChunk.next;
+					currSlot = 0;
+				}
+				nextI++;
+				return (E) oldChunk.items[oldSlot];
+			}
+
+			public boolean hasPrevious() { return previousIndex() >= 0; }
+
+			@SuppressWarnings("unchecked")
+			public E previous() {
+				if (!hasPrevious())
+					throw new NoSuchElementException();
+				isForward = false;
+
+				if (currSlot == 0) {
+					currChunk = currChunk.prev;
+					currSlot = currChunk.count;
+				}
+				currSlot--;
+				oldChunk = currChunk;
+				oldSlot = currSlot;
+				nextI--;
+				return (E) oldChunk.items[oldSlot];
+			}
+
+			public int nextIndex() { return nextI; }
+
+			public int previousIndex() { return nextI - 1; }
+
+			public void remove() {
+				if (oldChunk == null)
+					throw new IllegalStateException();
+
+				// either way the next element is the one which followed the removed one
+				removeAt(oldChunk, oldSlot);
+				currChunk = atChunk;
+				currSlot = atSlot;
+				if (isForward)
+					nextI--;
+				oldChunk = null;
+			}
+
+			public void set(E e) {
+				if (oldChunk == null)
+					throw new IllegalStateException();
+				oldChunk.items[oldSlot] = e;
+			}
+
+			public void add(E e) {
+				if (currChunk == sentinel)
+					insertAt(length, e);
+				else
+					insert(currChunk, currSlot, e);
+
+				currChunk = atChunk;
+				currSlot = atSlot + 1;
+				if (currSlot == currChunk.count) {
+					currChunk = currChunk.next;
+					currSlot = 0;
+				}
+				nextI++;
+				oldChunk = null;
+			}
+		};
+	}
+
+	// Serialization, handles are not kept
+
+	private void writeObject(ObjectOutputStream s) throws IOException {
+		s.defaultWriteObject();
+		s.writeInt(length);
+		for (Chunk chunk = sentinel.next; chunk != sentinel; chunk = chunk.next)
+			for (int i = 0; i < chunk.count; i++)
+				s.writeObject(chunk.items[i]);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		if (chunkSize < MIN_CHUNK_SIZE)
+			throw new InvalidObjectException("chunkSize " + chunkSize);
+		int count = s.readInt();
+		if (count < 0)
+			throw new InvalidObjectException("negative length " + count);
+
+		init();
+		for (int i = 0; i < count; i++)
+			addLast((E) s.readObject());
+	}
+}
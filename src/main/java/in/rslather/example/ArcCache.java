@@ -0,0 +1,168 @@
+package in.rslather.example;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import in.rslather.DLLNode;
+import in.rslather.DoublyLinkedList;
+
+/**
+ * A cache with the Adaptive Replacement Cache (ARC) policy, which balances recency against frequency by itself.</br>
+ * T1 holds entries seen once recently and T2 entries seen at least twice, B1 and B2 are ghost lists remembering only
+ * the keys recently evicted from T1 and T2. A put of a key found in B1 means T1 was too small, so the target size of
+ * T1 grows, one found in B2 shrinks it. All four lists are DoublyLinkedLists with the most recent entry first.</br>
+ * At most size values and size ghost keys are kept.
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class ArcCache<K, V> {
+	static final int T1 = 0;
+	static final int T2 = 1;
+	static final int B1 = 2;
+	static final int B2 = 3;
+
+	final DoublyLinkedList<Entry<K, V>> t1 = new DoublyLinkedList<>();
+	final DoublyLinkedList<Entry<K, V>> t2 = new DoublyLinkedList<>();
+	final DoublyLinkedList<Entry<K, V>> b1 = new DoublyLinkedList<>();
+	final DoublyLinkedList<Entry<K, V>> b2 = new DoublyLinkedList<>();
+	final Map<K, DLLNode<Entry<K, V>>> map;
+
+	final int size;
+	int target = 0; // target size of t1, called p in the ARC paper
+
+	static final class Entry<K, V> {
+		final K key;
+		V value; // null in ghost lists
+		int list = T1;
+
+		Entry(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String toString() { return "Entry {key=" + key + ", value=" + value + "}"; }
+	}
+
+	public ArcCache(int size) {
+		if (size <= 0)
+			throw new IllegalArgumentException();
+
+		this.size = size;
+		map = new HashMap<>(size * 2);
+	}
+
+	public V get(K key) {
+		DLLNode<Entry<K, V>> node = map.get(key);
+		if (node == null)
+			return null;
+
+		Entry<K, V> entry = node.getItem();
+		if (entry.list == B1 || entry.list == B2)
+			return null; // ghost, the value is gone
+
+		moveTo(node, t2, T2);
+		return entry.value;
+	}
+
+	public void put(K key, V value) {
+		DLLNode<Entry<K, V>> node = map.get(key);
+		Entry<K, V> entry = (node == null) ? null : node.getItem();
+
+		if (entry != null && (entry.list == T1 || entry.list == T2)) {
+			entry.value = value;
+			moveTo(node, t2, T2);
+			return;
+		}
+
+		if (entry != null && entry.list == B1) {
+			target = Math.min(size, target + Math.max(b2.size() / b1.size(), 1));
+			replace(false);
+			entry.value = value;
+			moveTo(node, t2, T2);
+			return;
+		}
+
+		if (entry != null) { // in b2
+			target = Math.max(0, target - Math.max(b1.size() / b2.size(), 1));
+			replace(true);
+			entry.value = value;
+			moveTo(node, t2, T2);
+			return;
+		}
+
+		int l1 = t1.size() + b1.size();
+		int total = l1 + t2.size() + b2.size();
+		if (l1 == size) {
+			if (t1.size() < size) {
+				drop(b1.pollLast());
+				replace(false);
+			} else {
+				drop(t1.pollLast());
+			}
+		} else if (total >= size) {
+			if (total == 2 * size)
+				drop(b2.pollLast());
+			replace(false);
+		}
+
+		node = new DLLNode<>(new Entry<>(key, value));
+		t1.addFirst(node);
+		map.put(key, node);
+	}
+
+	/**
+	 * @return number of entries with a value, ghost keys are not counted
+	 */
+	public int size() { return t1.size() + t2.size(); }
+
+	/**
+	 * Makes room for one value by moving the least recent entry of t1 or t2 to its ghost list.
+	 *
+	 * @param inB2 whether the key being put was found in b2
+	 */
+	void replace(boolean inB2) {
+		if (t1.size() + t2.size() < size)
+			return;
+
+		if (!t1.isEmpty() && (t1.size() > target || (inB2 && t1.size() == target)))
+			toGhost(t1.peekLast(), b1, B1);
+		else if (!t2.isEmpty())
+			toGhost(t2.peekLast(), b2, B2);
+		else
+			toGhost(t1.peekLast(), b1, B1);
+	}
+
+	void toGhost(DLLNode<Entry<K, V>> node, DoublyLinkedList<Entry<K, V>> ghosts, int list) {
+		node.getItem().value = null;
+		moveTo(node, ghosts, list);
+	}
+
+	void moveTo(DLLNode<Entry<K, V>> node, DoublyLinkedList<Entry<K, V>> to, int list) {
+		Entry<K, V> entry = node.getItem();
+		if (entry.list == list) {
+			to.moveToFirst(node);
+			return;
+		}
+
+		listOf(entry.list).removeNode(node);
+		entry.list = list;
+		to.addFirst(node);
+	}
+
+	DoublyLinkedList<Entry<K, V>> listOf(int list) {
+		switch (list) {
+		case T1:
+			return t1;
+		case T2:
+			return t2;
+		case B1:
+			return b1;
+		default:
+			return b2;
+		}
+	}
+
+	void drop(DLLNode<Entry<K, V>> node) { map.remove(node.getItem().key); }
+}
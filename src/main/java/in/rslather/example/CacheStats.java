@@ -0,0 +1,42 @@
+package in.rslather.example;
+
+/**
+ * An immutable snapshot of the counts of a StatsCounter, latencies are in nanoseconds.
+ */
+public class CacheStats {
+	static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, LatencyHistogram.Snapshot.EMPTY,
+			LatencyHistogram.Snapshot.EMPTY);
+
+	public final long hitCount;
+	public final long missCount;
+	public final long putCount;
+	public final long updateCount;
+	public final long evictionCount;
+	public final LatencyHistogram.Snapshot getLatency;
+	public final LatencyHistogram.Snapshot putLatency;
+
+	public CacheStats(long hitCount, long missCount, long putCount, long updateCount, long evictionCount,
+			LatencyHistogram.Snapshot getLatency, LatencyHistogram.Snapshot putLatency) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.putCount = putCount;
+		this.updateCount = updateCount;
+		this.evictionCount = evictionCount;
+		this.getLatency = getLatency;
+		this.putLatency = putLatency;
+	}
+
+	public long requestCount() { return hitCount + missCount; }
+
+	/**
+	 * @return hits divided by requests, 1 when there were no requests
+	 */
+	public double hitRate() { return (requestCount() == 0) ? 1.0 : (double) hitCount / requestCount(); }
+
+	@Override
+	public String toString() {
+		return "CacheStats {hits=" + hitCount + ", misses=" + missCount + ", hitRate=" + hitRate() + ", puts="
+				+ putCount + ", updates=" + updateCount + ", evictions=" + evictionCount + ", get=" + getLatency
+				+ ", put=" + putLatency + "}";
+	}
+}
@@ -0,0 +1,33 @@
+package in.rslather.example;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Turns keys or values into bytes and back, for cache snapshots.
+ *
+ * @param <T>
+ */
+public interface Codec<T> {
+	Codec<String> STRING = new Codec<>() {
+		public byte[] encode(String value) { return value.getBytes(StandardCharsets.UTF_8); }
+
+		public String decode(byte[] bytes) { return new String(bytes, StandardCharsets.UTF_8); }
+	};
+
+	Codec<Integer> INTEGER = new Codec<>() {
+		public byte[] encode(Integer value) { return ByteBuffer.allocate(Integer.BYTES).putInt(value).array(); }
+
+		public Integer decode(byte[] bytes) { return ByteBuffer.wrap(bytes).getInt(); }
+	};
+
+	Codec<Long> LONG = new Codec<>() {
+		public byte[] encode(Long value) { return ByteBuffer.allocate(Long.BYTES).putLong(value).array(); }
+
+		public Long decode(byte[] bytes) { return ByteBuffer.wrap(bytes).getLong(); }
+	};
+
+	byte[] encode(T value);
+
+	T decode(byte[] bytes);
+}
@@ -0,0 +1,452 @@
+package in.rslather.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import in.rslather.DLLNode;
+
+/**
+ * A thread safe LRU cache which shards keys across independent segments.</br>
+ * Every segment is an {@link LRUCache} (with its own DoublyLinkedList) guarded by its own lock, so threads working on
+ * keys of different segments never contend.</br>
+ * Eviction is approximate LRU: the least recently used entry of the segment being written to is evicted, not the
+ * least recently used entry of the whole cache.
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class ConcurrentLRUCache<K, V> {
+	static final int DEFAULT_SEGMENTS = 16;
+	static final int MAX_SEGMENTS = 1 << 16;
+
+	final Segment<K, V>[] segments;
+	final int segmentMask;
+	final int capacity;
+	final StatsCounter statsCounter;
+
+	final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>(); // loads in flight
+	final Executor loadExecutor;
+
+	public ConcurrentLRUCache(int capacity) { this(capacity, DEFAULT_SEGMENTS); }
+
+	public ConcurrentLRUCache(int capacity, int segmentCount) { this(capacity, segmentCount, StatsCounter.DISABLED); }
+
+	/**
+	 * @param capacity     maximum number of entries in the whole cache, shared evenly between the segments
+	 * @param segmentCount number of segments, rounded up to a power of two and capped at capacity
+	 * @param statsCounter shared by all segments, should be thread safe (e.g. ConcurrentStatsCounter)
+	 */
+	public ConcurrentLRUCache(int capacity, int segmentCount, StatsCounter statsCounter) {
+		this(capacity, segmentCount, statsCounter, LOAD_EXECUTOR);
+	}
+
+	/**
+	 * @param loadExecutor runs the loads of {@link #getAsync}, the loaders may block so it should not be a small pool
+	 */
+	public ConcurrentLRUCache(int capacity, int segmentCount, StatsCounter statsCounter, Executor loadExecutor) {
+		if (capacity <= 0 || segmentCount <= 0)
+			throw new IllegalArgumentException();
+
+		int n = 1;
+		while (n < segmentCount && n < MAX_SEGMENTS)
+			n <<= 1;
+		while (n > capacity)
+			n >>>= 1; // every segment must be able to hold at least one entry
+
+		this.capacity = capacity;
+		this.statsCounter = statsCounter;
+		this.loadExecutor = loadExecutor;
+		segmentMask = n - 1;
+		@SuppressWarnings("unchecked")
+		Segment<K, V>[] segments = (Segment<K, V>[]) new Segment<?, ?>[n];
+		this.segments = segments;
+
+		// the remainder of the budget is spread over the first segments
+		for (int i = 0; i < n; i++)
+			segments[i] = new Segment<>(capacity / n + (i < capacity % n ? 1 : 0), statsCounter);
+	}
+
+	public V get(K key) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock();
+		try {
+			return segment.cache.get(key);
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	/**
+	 * Like {@link #get(Object)}, but a miss is loaded with loader and inserted into the cache.</br>
+	 * Concurrent misses for the same key share one load, the first of them runs it on its own thread and the others
+	 * wait for it. A loader which throws leaves nothing in the cache, the next miss tries again. A null result is
+	 * returned but not cached.
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value != null)
+			return value;
+
+		return join(load(key, loader, Runnable::run));
+	}
+
+	/**
+	 * Like {@link #get(Object, Function)}, but a miss is loaded on the load executor (virtual threads when the
+	 * runtime has them) and the caller gets a future right away. If the executor rejects the load the future fails
+	 * with its exception.
+	 */
+	public CompletableFuture<V> getAsync(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value != null)
+			return CompletableFuture.completedFuture(value);
+
+		return load(key, loader, loadExecutor);
+	}
+
+	/**
+	 * Starts a load of key on executor, or joins the one in flight.
+	 */
+	CompletableFuture<V> load(K key, Function<? super K, ? extends V> loader, Executor executor) {
+		CompletableFuture<V> future = new CompletableFuture<>();
+		CompletableFuture<V> inFlight = loading.putIfAbsent(key, future);
+		if (inFlight != null)
+			return inFlight;
+
+		// a load may have finished between the miss and putIfAbsent
+		V value = peek(key);
+		if (value != null) {
+			loading.remove(key, future);
+			future.complete(value);
+			return future;
+		}
+
+		try {
+			executor.execute(() -> complete(key, future, loader));
+		} catch (RuntimeException e) {
+			// a rejected load must not leave a future in loading which nobody will complete
+			loading.remove(key, future);
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * Runs loader for key and hands the outcome to future.
+	 */
+	private void complete(K key, CompletableFuture<V> future, Function<? super K, ? extends V> loader) {
+		V loaded;
+		try {
+			loaded = loader.apply(key);
+		} catch (Throwable t) {
+			loading.remove(key, future);
+			future.completeExceptionally(t);
+			return;
+		}
+
+		// inserted before the future leaves loading, so every later miss finds either the entry or the future
+		if (loaded != null)
+			putIfAbsent(key, loaded);
+		loading.remove(key, future);
+		future.complete(loaded);
+	}
+
+	/**
+	 * Looks up all keys taking every segment lock at most once, then loads the misses with a single call to bulkLoader
+	 * and inserts the results, again locking every segment at most once.</br>
+	 * Misses which are already being loaded by another caller are waited for instead of being loaded again, and other
+	 * callers missing on the keys of this bulk load wait for it. Keys which the loader leaves out (or maps to null) are
+	 * missing from the result and are not cached. A loader which throws leaves nothing in the cache.
+	 *
+	 * @param bulkLoader receives the missing keys, may return more keys than asked for, those are ignored
+	 * @return the values found or loaded for keys
+	 */
+	public Map<K, V> getAll(Iterable<? extends K> keys,
+			Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+		Map<K, V> result = new HashMap<>();
+		Set<K> misses = new LinkedHashSet<>();
+
+		List<K>[] bySegment = groupBySegment(keys);
+		for (int i = 0; i < segments.length; i++) {
+			if (bySegment[i] == null)
+				continue;
+
+			Segment<K, V> segment = segments[i];
+			segment.lock();
+			try {
+				for (K key : bySegment[i]) {
+					V value = segment.cache.get(key);
+					if (value != null)
+						result.put(key, value);
+					else
+						misses.add(key);
+				}
+			} finally {
+				segment.unlock();
+			}
+		}
+		if (misses.isEmpty())
+			return result;
+
+		Map<K, CompletableFuture<V>> ours = new HashMap<>();
+		Map<K, CompletableFuture<V>> others = new HashMap<>();
+		for (K key : misses) {
+			CompletableFuture<V> future = new CompletableFuture<>();
+			CompletableFuture<V> inFlight = loading.putIfAbsent(key, future);
+			if (inFlight == null)
+				ours.put(key, future);
+			else
+				others.put(key, inFlight);
+		}
+
+		if (!ours.isEmpty()) {
+			Map<K, V> loaded;
+			try {
+				loaded = LRUCache.loadAll(ours.keySet(), bulkLoader);
+			} catch (RuntimeException | Error e) {
+				ours.forEach((key, future) -> {
+					loading.remove(key, future);
+					future.completeExceptionally(e);
+				});
+				throw e;
+			}
+
+			// inserted before the futures leave loading, like a single load
+			putAllIfAbsent(loaded);
+			ours.forEach((key, future) -> {
+				loading.remove(key, future);
+				future.complete(loaded.get(key));
+			});
+			result.putAll(loaded);
+		}
+
+		others.forEach((key, future) -> {
+			V value = join(future);
+			if (value != null)
+				result.put(key, value);
+		});
+		return result;
+	}
+
+	/**
+	 * Puts all entries taking every segment lock at most once, see {@link LRUCache#putAll}.
+	 */
+	public void putAll(Map<? extends K, ? extends V> entries) {
+		List<K>[] bySegment = groupBySegment(entries.keySet());
+		for (int i = 0; i < segments.length; i++) {
+			if (bySegment[i] == null)
+				continue;
+
+			Map<K, V> part = new LinkedHashMap<>();
+			for (K key : bySegment[i])
+				part.put(key, entries.get(key));
+
+			Segment<K, V> segment = segments[i];
+			segment.lock();
+			try {
+				segment.cache.putAll(part);
+			} finally {
+				segment.unlock();
+			}
+		}
+	}
+
+	void putAllIfAbsent(Map<K, V> entries) {
+		List<K>[] bySegment = groupBySegment(entries.keySet());
+		for (int i = 0; i < segments.length; i++) {
+			if (bySegment[i] == null)
+				continue;
+
+			Map<K, V> part = new LinkedHashMap<>();
+			Segment<K, V> segment = segments[i];
+			segment.lock();
+			try {
+				for (K key : bySegment[i])
+					if (!segment.cache.map.containsKey(key))
+						part.put(key, entries.get(key));
+				segment.cache.putAll(part);
+			} finally {
+				segment.unlock();
+			}
+		}
+	}
+
+	/**
+	 * @return the keys of every segment in iteration order, null for segments without keys
+	 */
+	List<K>[] groupBySegment(Iterable<? extends K> keys) {
+		@SuppressWarnings("unchecked")
+		List<K>[] bySegment = (List<K>[]) new List<?>[segments.length];
+		for (K key : keys) {
+			int i = segmentIndex(key);
+			if (bySegment[i] == null)
+				bySegment[i] = new ArrayList<>();
+			bySegment[i].add(key);
+		}
+		return bySegment;
+	}
+
+	/**
+	 * Waits for a load, rethrowing the failure of the loader as it was thrown.
+	 */
+	static <V> V join(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			// loaders are Functions, so their failures are unchecked
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return value of key without counting as a use of it
+	 */
+	V peek(K key) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock();
+		try {
+			DLLNode<Pair<K, V>> node = segment.cache.map.get(key);
+			return (node == null) ? null : node.getItem().b;
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	/**
+	 * A put which keeps a value written while a load was running, it is newer than the loaded one.
+	 */
+	void putIfAbsent(K key, V value) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock();
+		try {
+			if (!segment.cache.map.containsKey(key))
+				segment.cache.put(key, value);
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	public void put(K key, V value) {
+		Segment<K, V> segment = segmentFor(key);
+		segment.lock();
+		try {
+			segment.cache.put(key, value);
+		} finally {
+			segment.unlock();
+		}
+	}
+
+	/**
+	 * @return number of entries in the cache, the segments are not locked together so this is only a snapshot.
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				size += segment.cache.size();
+			} finally {
+				segment.unlock();
+			}
+		}
+		return size;
+	}
+
+	public int capacity() { return capacity; }
+
+	/**
+	 * @return the stats of all segments together, empty when stats are disabled
+	 */
+	public CacheStats stats() { return statsCounter.snapshot(); }
+
+	public int segmentCount() { return segments.length; }
+
+	/**
+	 * Writes the entries to file, replacing it.</br>
+	 * Segments are copied one at a time under their own lock, and encoding and writing happen after all locks are
+	 * released, so live traffic is only held up for the copy of one segment. Every segment is consistent in itself,
+	 * the cache as a whole is not.
+	 */
+	public void snapshotTo(Path file, Codec<? super K> keyCodec, Codec<? super V> valueCodec) throws IOException {
+		List<Pair<K, V>> entries = new ArrayList<>();
+		for (Segment<K, V> segment : segments) {
+			segment.lock();
+			try {
+				entries.addAll(segment.cache.copyEntries());
+			} finally {
+				segment.unlock();
+			}
+		}
+		LRUCache.writeSnapshot(file, entries, keyCodec, valueCodec);
+	}
+
+	/**
+	 * Adds the entries of a snapshot behind the current ones of their segments, keeping their recency order, as long
+	 * as the segment has room. Keys already in the cache keep their current value.
+	 *
+	 * @return number of entries read from the snapshot
+	 */
+	public int restoreFrom(Path file, Codec<? extends K> keyCodec, Codec<? extends V> valueCodec) throws IOException {
+		return SnapshotFile.read(file, keyCodec, valueCodec, (key, value) -> {
+			Segment<K, V> segment = segmentFor(key);
+			segment.lock();
+			try {
+				segment.cache.restoreEntry(key, value, segment.cache.deList);
+			} finally {
+				segment.unlock();
+			}
+			return true; // other segments may still have room
+		});
+	}
+
+	Segment<K, V> segmentFor(Object key) { return segments[segmentIndex(key)]; }
+
+	int segmentIndex(Object key) { return spread(key.hashCode()) & segmentMask; }
+
+	/**
+	 * Picks the segment from the upper half of a scrambled hash, the lower bits are left to the HashMap of the segment.
+	 */
+	static int spread(int h) { return ((h ^ (h >>> 16)) * 0x9E3779B9) >>> 16; }
+
+	static final Executor LOAD_EXECUTOR = loadExecutor();
+
+	/**
+	 * @return a virtual thread per task executor when the runtime has one, otherwise a cached pool of daemon threads
+	 */
+	static Executor loadExecutor() {
+		try {
+			return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, "ConcurrentLRUCache-loader");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	static final class Segment<K, V> extends ReentrantLock {
+		private static final long serialVersionUID = 1L;
+
+		final LRUCache<K, V> cache;
+
+		Segment(int capacity, StatsCounter statsCounter) { cache = new LRUCache<>(capacity, statsCounter); }
+	}
+}
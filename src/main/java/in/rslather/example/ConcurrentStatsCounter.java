@@ -0,0 +1,44 @@
+package in.rslather.example;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A StatsCounter which can be shared by many threads (and many caches).</br>
+ * Counts are striped LongAdders, so threads incrementing them do not contend on a single cache line.
+ */
+public class ConcurrentStatsCounter implements StatsCounter {
+	final LongAdder hits = new LongAdder();
+	final LongAdder misses = new LongAdder();
+	final LongAdder puts = new LongAdder();
+	final LongAdder updates = new LongAdder();
+	final LongAdder evictions = new LongAdder();
+	final LatencyHistogram getLatency = new LatencyHistogram();
+	final LatencyHistogram putLatency = new LatencyHistogram();
+
+	@Override
+	public void recordHit() { hits.increment(); }
+
+	@Override
+	public void recordMiss() { misses.increment(); }
+
+	@Override
+	public void recordPut() { puts.increment(); }
+
+	@Override
+	public void recordUpdate() { updates.increment(); }
+
+	@Override
+	public void recordEviction() { evictions.increment(); }
+
+	@Override
+	public void recordGetLatency(long nanos) { getLatency.record(nanos); }
+
+	@Override
+	public void recordPutLatency(long nanos) { putLatency.record(nanos); }
+
+	@Override
+	public CacheStats snapshot() {
+		return new CacheStats(hits.sum(), misses.sum(), puts.sum(), updates.sum(), evictions.sum(),
+				getLatency.snapshot(), putLatency.snapshot());
+	}
+}
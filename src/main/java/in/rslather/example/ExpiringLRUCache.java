@@ -0,0 +1,145 @@
+package in.rslather.example;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import in.rslather.DLLNode;
+import in.rslather.DoublyLinkedList;
+
+/**
+ * An LRUCache whose entries also expire a fixed time after they were written and/or last accessed.</br>
+ * Every entry sits in the recency DoublyLinkedList and in a bucket of a {@link TimerWheel}, expired entries are
+ * removed as the wheel is advanced at the start of every get and put (or by {@link #cleanUp()}), so expiry never scans
+ * the whole cache. An entry past its expiry time is never returned, even if the wheel has not removed it yet.
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class ExpiringLRUCache<K, V> {
+	final DoublyLinkedList<Entry<K, V>> deList = new DoublyLinkedList<>();
+	final Map<K, Entry<K, V>> map;
+	final TimerWheel<Entry<K, V>> wheel;
+	final Ticker ticker;
+
+	final long expireAfterWriteNanos;
+	final long expireAfterAccessNanos;
+
+	int size;
+
+	static final class Entry<K, V> {
+		final K key;
+		V value;
+		long writeTime;
+		long accessTime;
+		final DLLNode<Entry<K, V>> lruNode = new DLLNode<>(this);
+		final TimerWheel.Node<Entry<K, V>> timerNode = new TimerWheel.Node<>(this);
+
+		Entry(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String toString() { return "Entry {key=" + key + ", value=" + value + "}"; }
+	}
+
+	public ExpiringLRUCache(int size, long expireAfterWrite, long expireAfterAccess, TimeUnit unit) {
+		this(size, expireAfterWrite, expireAfterAccess, unit, Ticker.SYSTEM);
+	}
+
+	/**
+	 * @param size              maximum number of entries
+	 * @param expireAfterWrite  time after a put at which the entry expires, 0 to never expire after a write
+	 * @param expireAfterAccess time after a get or put at which the entry expires, 0 to never expire after an access
+	 * @param unit              unit of both times
+	 * @param ticker            source of time
+	 */
+	public ExpiringLRUCache(int size, long expireAfterWrite, long expireAfterAccess, TimeUnit unit, Ticker ticker) {
+		if (size <= 0 || expireAfterWrite < 0 || expireAfterAccess < 0)
+			throw new IllegalArgumentException();
+
+		this.size = size;
+		this.ticker = ticker;
+		expireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+		expireAfterAccessNanos = unit.toNanos(expireAfterAccess);
+		map = new HashMap<>(size);
+		wheel = new TimerWheel<>(ticker.read(), this::remove);
+	}
+
+	public V get(K key) {
+		long now = ticker.read();
+		wheel.advance(now);
+
+		Entry<K, V> entry = map.get(key);
+		if (entry == null)
+			return null;
+
+		if (isExpired(entry, now)) {
+			remove(entry);
+			return null;
+		}
+
+		entry.accessTime = now;
+		if (expireAfterAccessNanos > 0)
+			schedule(entry);
+		deList.moveToFirst(entry.lruNode);
+		return entry.value;
+	}
+
+	public void put(K key, V value) {
+		long now = ticker.read();
+		wheel.advance(now);
+
+		Entry<K, V> entry = map.get(key);
+		if (entry != null) {
+			entry.value = value;
+			deList.moveToFirst(entry.lruNode);
+		} else {
+			if (deList.size() > size - 1)
+				remove(deList.peekLast().getItem());
+
+			entry = new Entry<>(key, value);
+			deList.addFirst(entry.lruNode);
+			map.put(key, entry);
+		}
+
+		entry.writeTime = now;
+		entry.accessTime = now;
+		schedule(entry);
+	}
+
+	/**
+	 * Removes the expired entries now instead of waiting for the next get or put.
+	 */
+	public void cleanUp() { wheel.advance(ticker.read()); }
+
+	/**
+	 * @return number of entries, including expired entries which have not been removed yet
+	 */
+	public int size() { return map.size(); }
+
+	long expiryTime(Entry<K, V> entry) {
+		long time = Long.MAX_VALUE;
+		if (expireAfterWriteNanos > 0)
+			time = entry.writeTime + expireAfterWriteNanos;
+		if (expireAfterAccessNanos > 0)
+			time = Math.min(time, entry.accessTime + expireAfterAccessNanos);
+		return time;
+	}
+
+	boolean isExpired(Entry<K, V> entry, long now) {
+		return (expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0) && expiryTime(entry) - now <= 0;
+	}
+
+	void schedule(Entry<K, V> entry) {
+		if (expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0)
+			wheel.schedule(entry.timerNode, expiryTime(entry));
+	}
+
+	void remove(Entry<K, V> entry) {
+		wheel.cancel(entry.timerNode);
+		deList.removeNode(entry.lruNode);
+		map.remove(entry.key);
+	}
+}
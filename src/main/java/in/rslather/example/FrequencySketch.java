@@ -0,0 +1,85 @@
+package in.rslather.example;
+
+/**
+ * A count-min sketch of how often keys were seen, with 4 bit counters packed 16 to a long.</br>
+ * Every key maps to one counter in each of 4 rows, its frequency is the smallest of them. Once the number of
+ * increments reaches 10 times the capacity, all counters are halved so that old popularity fades away (aging).
+ *
+ * @param <E>
+ */
+public class FrequencySketch<E> {
+	static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+	static final long RESET_MASK = 0x7777777777777777L;
+	static final int MAX_COUNT = 15;
+
+	final long[] table;
+	final int tableMask;
+	final int sampleSize;
+	int additions = 0;
+
+	/**
+	 * @param capacity expected number of distinct keys worth tracking, usually the cache size
+	 */
+	public FrequencySketch(int capacity) {
+		int tableSize = Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1);
+		table = new long[tableSize];
+		tableMask = tableSize - 1;
+		sampleSize = (int) Math.min(10L * Math.max(capacity, 1), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @return estimated number of times e was seen, at most 15
+	 */
+	public int frequency(E e) {
+		int hash = spread(e.hashCode());
+		int start = (hash & 3) << 2;
+		int frequency = MAX_COUNT;
+		for (int i = 0; i < 4; i++) {
+			int count = (int) ((table[indexOf(hash, i)] >>> ((start + i) << 2)) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	public void increment(E e) {
+		int hash = spread(e.hashCode());
+		int start = (hash & 3) << 2;
+		boolean added = false;
+		for (int i = 0; i < 4; i++)
+			added |= incrementAt(indexOf(hash, i), start + i);
+
+		if (added && ++additions == sampleSize)
+			reset();
+	}
+
+	boolean incrementAt(int i, int counter) {
+		int offset = counter << 2;
+		long mask = 0xfL << offset;
+		if ((table[i] & mask) == mask)
+			return false;
+
+		table[i] += 1L << offset;
+		return true;
+	}
+
+	/**
+	 * Halves every counter.
+	 */
+	void reset() {
+		for (int i = 0; i < table.length; i++)
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		additions >>>= 1;
+	}
+
+	int indexOf(int hash, int row) {
+		long h = (hash + SEEDS[row]) * SEEDS[row];
+		h += h >>> 32;
+		return (int) h & tableMask;
+	}
+
+	static int spread(int x) {
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+}
@@ -0,0 +1,154 @@
+package in.rslather.example;
+
+/**
+ * An LRU cache where the hash table and the recency list are the same structure.</br>
+ * Entries live in the slots of an open addressing (linear probing) table kept in parallel arrays, and every slot
+ * also holds the prev/next links of the recency list. All arrays are allocated up front, so neither adding nor
+ * updating an entry allocates.</br>
+ * Null keys are not permitted.
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class IntrusiveLRUCache<K, V> {
+	final Object[] keys;
+	final Object[] values;
+	final int[] prev;
+	final int[] next;
+	final int mask;
+	final int sentinel; // extra slot past the table, its next is the most recent entry and its prev the least recent
+
+	final int size;
+	int count = 0;
+
+	/**
+	 * @param size maximum number of entries, the table is sized to stay at most half full
+	 */
+	public IntrusiveLRUCache(int size) {
+		if (size <= 0)
+			throw new IllegalArgumentException();
+
+		int tableSize = Integer.highestOneBit(Math.max(size * 2 - 1, 1)) << 1;
+		this.size = size;
+		mask = tableSize - 1;
+		sentinel = tableSize;
+
+		keys = new Object[tableSize];
+		values = new Object[tableSize];
+		prev = new int[tableSize + 1];
+		next = new int[tableSize + 1];
+		prev[sentinel] = sentinel;
+		next[sentinel] = sentinel;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(K key) {
+		int i = indexOf(key);
+		if (i < 0)
+			return null;
+
+		moveToFirst(i);
+		return (V) values[i];
+	}
+
+	@SuppressWarnings("unchecked")
+	public V peek() {
+		int first = next[sentinel];
+		return (first == sentinel) ? null : (V) values[first];
+	}
+
+	public void put(K key, V value) {
+		int i = indexOf(key);
+		if (i >= 0) {
+			values[i] = value;
+			moveToFirst(i);
+			return;
+		}
+
+		if (count > size - 1)
+			delete(prev[sentinel]);
+
+		i = home(key);
+		while (keys[i] != null)
+			i = (i + 1) & mask;
+
+		keys[i] = key;
+		values[i] = value;
+		link(sentinel, i);
+		count++;
+	}
+
+	public int size() { return count; }
+
+	int home(Object key) {
+		int h = key.hashCode() * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * @return slot of key or -1
+	 */
+	int indexOf(Object key) {
+		for (int i = home(key);; i = (i + 1) & mask) {
+			Object k = keys[i];
+			if (k == null)
+				return -1;
+			if (k == key || k.equals(key))
+				return i;
+		}
+	}
+
+	void moveToFirst(int i) {
+		if (next[sentinel] == i)
+			return;
+
+		unlink(i);
+		link(sentinel, i);
+	}
+
+	void link(int left, int i) {
+		int right = next[left];
+
+		next[i] = right;
+		prev[i] = left;
+
+		prev[right] = i;
+		next[left] = i;
+	}
+
+	void unlink(int i) {
+		next[prev[i]] = next[i];
+		prev[next[i]] = prev[i];
+	}
+
+	/**
+	 * Removes the entry in slot i and shifts back the entries of its probe run so that no tombstones are needed.
+	 */
+	void delete(int i) {
+		unlink(i);
+		count--;
+
+		for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+			int home = home(keys[j]);
+			// the entry in j can fill the hole only if its home is not cyclically within (i, j]
+			boolean stays = (i <= j) ? (i < home && home <= j) : (i < home || home <= j);
+			if (!stays) {
+				move(j, i);
+				i = j;
+			}
+		}
+
+		keys[i] = null;
+		values[i] = null;
+	}
+
+	void move(int from, int to) {
+		keys[to] = keys[from];
+		values[to] = values[from];
+		prev[to] = prev[from];
+		next[to] = next[from];
+
+		next[prev[to]] = to;
+		prev[next[to]] = to;
+	}
+}
@@ -1,45 +1,252 @@
 package in.rslather.example;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 import in.rslather.DoublyLinkedList;
 import in.rslather.utils.ArrayListDeque;
 import in.rslather.DLLNode;
 
-public class LRUCache<K, V> {
+/**
+ * Serializable as long as its keys, values and weigher are, the stats counter is not serialized.
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class LRUCache<K, V> implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	final DoublyLinkedList<Pair<K, V>> deList;
 	final Map<K, DLLNode<Pair<K, V>>> map;
 
+	final StatsCounter statsCounter;
+	final boolean recordStats;
+
+	final Weigher<? super K, ? super V> weigher; // null when bounded by entry count
+	final long maxWeight;
+	long totalWeight = 0;
+
 	int size;
 
-	public LRUCache(int size) {
+	public LRUCache(int size) { this(size, StatsCounter.DISABLED); }
+
+	/**
+	 * @param size         maximum number of entries
+	 * @param statsCounter receives hits, misses, puts, evictions and latencies, may be shared between caches
+	 */
+	public LRUCache(int size, StatsCounter statsCounter) {
 		this.size = size;
+		this.statsCounter = statsCounter;
+		recordStats = statsCounter != StatsCounter.DISABLED;
+		weigher = null;
+		maxWeight = size;
 		map = new HashMap<>(size);
 		deList = new DoublyLinkedList<>();
 	}
 
+	public LRUCache(long maxWeight, Weigher<? super K, ? super V> weigher) {
+		this(maxWeight, weigher, StatsCounter.DISABLED);
+	}
+
+	/**
+	 * A cache bounded by the total weight of its entries instead of their count.</br>
+	 * A put evicts least recently used entries until the total weight is within maxWeight again, an entry which is
+	 * heavier than maxWeight on its own is evicted right away.
+	 *
+	 * @param maxWeight    maximum total weight
+	 * @param weigher      computes the weight of every entry
+	 * @param statsCounter receives hits, misses, puts, evictions and latencies, may be shared between caches
+	 */
+	public LRUCache(long maxWeight, Weigher<? super K, ? super V> weigher, StatsCounter statsCounter) {
+		if (maxWeight < 0 || weigher == null)
+			throw new IllegalArgumentException();
+
+		this.size = Integer.MAX_VALUE;
+		this.statsCounter = statsCounter;
+		recordStats = statsCounter != StatsCounter.DISABLED;
+		this.weigher = weigher;
+		this.maxWeight = maxWeight;
+		map = new HashMap<>();
+		deList = new DoublyLinkedList<>();
+	}
+
 	public V get(K key) {
+		if (!recordStats)
+			return getEntry(key);
+
+		long start = System.nanoTime();
+		V value = getEntry(key);
+		statsCounter.recordGetLatency(System.nanoTime() - start);
+		return value;
+	}
+
+	V getEntry(K key) {
 		DLLNode<Pair<K, V>> node = map.get(key);
-		if (node == null)
+		if (node == null) {
+			if (recordStats)
+				statsCounter.recordMiss();
 			return null;
+		}
 
+		if (recordStats)
+			statsCounter.recordHit();
 		deList.moveToFirst(node);
 		return node.getItem().b;
 	}
 
+	/**
+	 * Like {@link #get(Object)}, but a miss is loaded with loader and inserted. A loader which throws leaves nothing in
+	 * the cache, a null result is returned but not cached. Use {@link ConcurrentLRUCache} to share loads between threads.
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value != null)
+			return value;
+
+		value = loader.apply(key);
+		if (value != null)
+			put(key, value);
+		return value;
+	}
+
+	/**
+	 * Looks up all keys, then loads every miss with a single call to bulkLoader and inserts what it returned.</br>
+	 * Keys which the loader leaves out (or maps to null) are missing from the result and are not cached. A loader which
+	 * throws leaves nothing in the cache.
+	 *
+	 * @param bulkLoader receives the missing keys, may return more keys than asked for, those are ignored
+	 * @return the values found or loaded for keys
+	 */
+	public Map<K, V> getAll(Iterable<? extends K> keys,
+			Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+		Map<K, V> result = new HashMap<>();
+		Set<K> misses = new LinkedHashSet<>();
+		for (K key : keys) {
+			V value = get(key);
+			if (value != null)
+				result.put(key, value);
+			else
+				misses.add(key);
+		}
+
+		if (!misses.isEmpty()) {
+			Map<K, V> loaded = loadAll(misses, bulkLoader);
+			putAll(loaded);
+			result.putAll(loaded);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the non null values bulkLoader returned for keys, in the order of keys
+	 */
+	static <K, V> Map<K, V> loadAll(Set<K> keys,
+			Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+		Map<? extends K, ? extends V> returned = bulkLoader.apply(Collections.unmodifiableSet(keys));
+		Map<K, V> loaded = new LinkedHashMap<>();
+		for (K key : keys) {
+			V value = returned.get(key);
+			if (value != null)
+				loaded.put(key, value);
+		}
+		return loaded;
+	}
+
+	/**
+	 * Puts all entries, the last one in iteration order ends up most recently used.</br>
+	 * Evictions are made once after all entries are linked in, instead of on every put. Put latencies are not recorded
+	 * for batches.
+	 */
+	public void putAll(Map<? extends K, ? extends V> entries) {
+		if (weigher != null) {
+			// an entry can be rejected for its weight alone, that is decided per entry
+			for (Map.Entry<? extends K, ? extends V> e : entries.entrySet())
+				put(e.getKey(), e.getValue());
+			return;
+		}
+
+		for (Map.Entry<? extends K, ? extends V> e : entries.entrySet()) {
+			K key = e.getKey();
+			DLLNode<Pair<K, V>> node = map.get(key);
+			if (node != null) {
+				if (recordStats)
+					statsCounter.recordUpdate();
+				node.setItem(new Pair<>(key, e.getValue()));
+				deList.moveToFirst(node);
+			} else {
+				node = new DLLNode<>(new Pair<>(key, e.getValue()));
+				deList.addFirst(node);
+				map.put(key, node);
+			}
+			if (recordStats)
+				statsCounter.recordPut();
+		}
+
+		while (deList.size() > size) {
+			if (recordStats)
+				statsCounter.recordEviction();
+			map.remove(deList.pollLast().getItem().a);
+		}
+	}
+
 	public V peek() { return deList.peekFirst().getItem().b; }
 
+	public int size() { return map.size(); }
+
+	/**
+	 * @return total weight of the entries, or their count when the cache is not bounded by weight
+	 */
+	public long weightedSize() { return (weigher == null) ? map.size() : totalWeight; }
+
+	/**
+	 * @return the hits, misses, puts, evictions and latencies recorded so far, empty when stats are disabled
+	 */
+	public CacheStats stats() { return statsCounter.snapshot(); }
+
 	public void put(K key, V value) {
+		if (!recordStats) {
+			putEntry(key, value);
+			return;
+		}
+
+		long start = System.nanoTime();
+		putEntry(key, value);
+		statsCounter.recordPut();
+		statsCounter.recordPutLatency(System.nanoTime() - start);
+	}
+
+	void putEntry(K key, V value) {
+		if (weigher != null) {
+			putWeighted(key, value);
+			return;
+		}
+
 		DLLNode<Pair<K, V>> newNode = map.get(key);
 		if (newNode != null) {
+			if (recordStats)
+				statsCounter.recordUpdate();
 			newNode.setItem(new Pair<>(key, value));
 			deList.moveToFirst(newNode);
 		} else {
-			if (deList.size() > size - 1)
+			if (deList.size() > size - 1) {
+				if (recordStats)
+					statsCounter.recordEviction();
 				map.remove(deList.pollLast().getItem().a);
+			}
 
 			newNode = new DLLNode<>(new Pair<>(key, value));
 			deList.addFirst(newNode);
@@ -47,6 +254,200 @@ public class LRUCache<K, V> {
 		}
 	}
 
+	void putWeighted(K key, V value) {
+		long weight = weigher.weigh(key, value);
+		if (weight < 0)
+			throw new IllegalArgumentException("negative weight for key " + key);
+
+		if (weight > maxWeight) {
+			// it would flush every other entry before being evicted itself, so it is evicted right away
+			DLLNode<Pair<K, V>> old = map.remove(key);
+			if (old != null) {
+				totalWeight -= weightOf(old);
+				deList.removeNode(old);
+			}
+			if (recordStats)
+				statsCounter.recordEviction();
+			return;
+		}
+
+		DLLNode<Pair<K, V>> node = map.get(key);
+		if (node != null) {
+			if (recordStats)
+				statsCounter.recordUpdate();
+			totalWeight -= weightOf(node);
+			node.setItem(new Pair<>(key, value));
+			((WeightedNode<K, V>) node).weight = weight;
+			deList.moveToFirst(node);
+		} else {
+			node = new WeightedNode<>(new Pair<>(key, value), weight);
+			deList.addFirst(node);
+			map.put(key, node);
+		}
+		totalWeight += weight;
+
+		while (totalWeight > maxWeight) {
+			DLLNode<Pair<K, V>> evicted = deList.pollLast();
+			if (recordStats)
+				statsCounter.recordEviction();
+			totalWeight -= weightOf(evicted);
+			map.remove(evicted.getItem().a);
+		}
+	}
+
+	/**
+	 * @return the weight the entry was added with, the weigher is not asked again so the total can not drift
+	 */
+	long weightOf(DLLNode<Pair<K, V>> node) { return ((WeightedNode<K, V>) node).weight; }
+
+	/**
+	 * The node of an entry of a cache bounded by weight, it remembers the weight the entry was added with.
+	 */
+	static final class WeightedNode<K, V> extends DLLNode<Pair<K, V>> {
+		private static final long serialVersionUID = 1L;
+
+		long weight;
+
+		WeightedNode(Pair<K, V> item, long weight) {
+			super(item);
+			this.weight = weight;
+		}
+	}
+
+	// Snapshots
+
+	/**
+	 * Writes the entries and their recency order to file, replacing it.</br>
+	 * Only copying the entries (references, no encoding) touches the cache, so a caller sharing it between threads
+	 * needs to hold its lock just for the copy. Use {@link #copyEntries()} and {@link #writeSnapshot} for that.
+	 */
+	public void snapshotTo(Path file, Codec<? super K> keyCodec, Codec<? super V> valueCodec) throws IOException {
+		writeSnapshot(file, copyEntries(), keyCodec, valueCodec);
+	}
+
+	/**
+	 * @return the entries from the most to the least recently used, O(n) and without any encoding
+	 */
+	public List<Pair<K, V>> copyEntries() {
+		List<Pair<K, V>> entries = new ArrayList<>(deList.size());
+		for (DLLNode<Pair<K, V>> node : deList)
+			entries.add(node.getItem()); // a Pair is never changed, a put replaces it
+		return entries;
+	}
+
+	/**
+	 * Writes entries taken with {@link #copyEntries()} to file, replacing it. Touches no cache.
+	 */
+	public static <K, V> void writeSnapshot(Path file, List<Pair<K, V>> entries, Codec<? super K> keyCodec,
+			Codec<? super V> valueCodec) throws IOException {
+		SnapshotFile.write(file, entries, keyCodec, valueCodec);
+	}
+
+	/**
+	 * Adds the entries of a snapshot behind the current ones, keeping their recency order, until the cache is full.
+	 * Keys already in the cache keep their current value.</br>
+	 * The nodes are linked into a separate list which is attached to the end of the cache in one step.
+	 *
+	 * @return number of entries read from the snapshot
+	 */
+	public int restoreFrom(Path file, Codec<? extends K> keyCodec, Codec<? extends V> valueCodec) throws IOException {
+		DoublyLinkedList<Pair<K, V>> restored = new DoublyLinkedList<>();
+		try {
+			return SnapshotFile.read(file, keyCodec, valueCodec, (key, value) -> restoreEntry(key, value, restored));
+		} finally {
+			deList.concat(restored); // also after a failure, the map already points at these nodes
+		}
+	}
+
+	/**
+	 * Links the entry at the end of restored unless the cache has no room left for it.
+	 *
+	 * @return false when the cache is full
+	 */
+	boolean restoreEntry(K key, V value, DoublyLinkedList<Pair<K, V>> restored) {
+		if (map.containsKey(key))
+			return true;
+
+		DLLNode<Pair<K, V>> node;
+		if (weigher == null) {
+			if (map.size() >= size)
+				return false;
+			node = new DLLNode<>(new Pair<>(key, value));
+		} else {
+			long weight = weigher.weigh(key, value);
+			if (weight < 0 || weight > maxWeight - totalWeight)
+				return false;
+			totalWeight += weight;
+			node = new WeightedNode<>(new Pair<>(key, value), weight);
+		}
+
+		restored.addLast(node);
+		map.put(key, node);
+		return true;
+	}
+
+	// Serialization
+
+	private Object writeReplace() { return new SerializedForm<>(this); }
+
+	private void readObject(ObjectInputStream s) throws InvalidObjectException {
+		throw new InvalidObjectException("LRUCache is read through its SerializedForm");
+	}
+
+	/**
+	 * Streams the bounds followed by the entries as key, value pairs from the most to the least recent, and adds
+	 * them back in the same order when read.
+	 */
+	static final class SerializedForm<K, V> implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		transient LRUCache<K, V> cache;
+
+		SerializedForm(LRUCache<K, V> cache) { this.cache = cache; }
+
+		private void writeObject(ObjectOutputStream s) throws IOException {
+			s.writeInt(cache.size);
+			s.writeLong(cache.maxWeight);
+			s.writeObject(cache.weigher);
+
+			s.writeInt(cache.deList.size());
+			for (DLLNode<Pair<K, V>> node : cache.deList) {
+				s.writeObject(node.getItem().a);
+				s.writeObject(node.getItem().b);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+			int size = s.readInt();
+			long maxWeight = s.readLong();
+			Weigher<? super K, ? super V> weigher = (Weigher<? super K, ? super V>) s.readObject();
+			cache = (weigher == null) ? new LRUCache<>(size) : new LRUCache<>(maxWeight, weigher);
+
+			int count = s.readInt();
+			if (count < 0)
+				throw new InvalidObjectException("negative count " + count);
+
+			for (int i = 0; i < count; i++) {
+				K key = (K) s.readObject();
+				V value = (V) s.readObject();
+
+				DLLNode<Pair<K, V>> node;
+				if (weigher == null)
+					node = new DLLNode<>(new Pair<>(key, value));
+				else {
+					long weight = weigher.weigh(key, value);
+					node = new WeightedNode<>(new Pair<>(key, value), weight);
+					cache.totalWeight += weight;
+				}
+				cache.deList.addLast(node);
+				cache.map.put(key, node);
+			}
+		}
+
+		private Object readResolve() { return cache; }
+	}
+
 	public static void main(String[] args) {
 		System.out.println("\nTesting LRUCache\n");
 
@@ -0,0 +1,96 @@
+package in.rslather.example;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded memory histogram of durations in nanoseconds.</br>
+ * Values are bucketed by their highest set bit and the next SUB_BITS bits, so every bucket is at most 1/8 (12.5%)
+ * wide relative to its value, for any value from 0 to Long.MAX_VALUE. Every bucket is a striped LongAdder, so threads
+ * recording the same common latencies do not contend on one counter, a snapshot sums the stripes.
+ */
+public class LatencyHistogram {
+	static final int SUB_BITS = 3;
+	static final int SUB_BUCKETS = 1 << SUB_BITS;
+	static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+	final LongAdder[] counts = new LongAdder[BUCKETS];
+
+	public LatencyHistogram() {
+		for (int i = 0; i < BUCKETS; i++)
+			counts[i] = new LongAdder();
+	}
+
+	public void record(long nanos) { counts[bucketOf(Math.max(nanos, 0))].increment(); }
+
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * @return the highest value which falls into the bucket
+	 */
+	static long upperBoundOf(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+
+		int shift = (bucket >>> SUB_BITS) - 1;
+		long lower = ((long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1)))) << shift;
+		return lower + (1L << shift) - 1;
+	}
+
+	public Snapshot snapshot() {
+		long[] copy = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++)
+			copy[i] = counts[i].sum();
+		return new Snapshot(copy);
+	}
+
+	/**
+	 * An immutable copy of the histogram.
+	 */
+	public static class Snapshot {
+		static final Snapshot EMPTY = new Snapshot(new long[BUCKETS]);
+
+		final long[] counts;
+		final long total;
+
+		Snapshot(long[] counts) {
+			this.counts = counts;
+			long total = 0;
+			for (long count : counts)
+				total += count;
+			this.total = total;
+		}
+
+		public long count() { return total; }
+
+		/**
+		 * @param percentile between 0 and 100
+		 * @return an upper bound of the value below which the given percentage of the recorded values fall, 0 if
+		 *         nothing was recorded
+		 */
+		public long percentile(double percentile) {
+			if (total == 0)
+				return 0;
+
+			long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+			long seen = 0;
+			for (int i = 0; i < counts.length; i++) {
+				seen += counts[i];
+				if (seen >= rank)
+					return upperBoundOf(i);
+			}
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public String toString() {
+			return "{count=" + total + ", p50=" + percentile(50) + ", p99=" + percentile(99) + ", p999="
+					+ percentile(99.9) + ", max=" + percentile(100) + "}";
+		}
+	}
+}
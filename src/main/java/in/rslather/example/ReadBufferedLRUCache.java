@@ -0,0 +1,151 @@
+package in.rslather.example;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import in.rslather.DLLNode;
+import in.rslather.DoublyLinkedList;
+
+/**
+ * A thread safe LRU cache where a hit does not touch the DoublyLinkedList.</br>
+ * Hits are recorded into small lossy ring buffers (striped by thread) and replayed against the list in batches, either
+ * when a buffer fills up or before a write. Reads never block, when a buffer is full and the lock is busy the hit is
+ * simply dropped, so the eviction order is close to but not exactly LRU.</br>
+ * Values are never updated in place, a put on an existing key replaces the node, which lets stale buffered hits be
+ * detected by comparing against the node currently mapped to the key.
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class ReadBufferedLRUCache<K, V> {
+	static final int BUFFER_SIZE = 16; // power of two
+	static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+	final DoublyLinkedList<Pair<K, V>> deList = new DoublyLinkedList<>();
+	final ConcurrentHashMap<K, DLLNode<Pair<K, V>>> map;
+	final ReentrantLock lock = new ReentrantLock();
+	final ReadBuffer<K, V>[] buffers;
+	final int bufferMask;
+
+	final int size;
+
+	public ReadBufferedLRUCache(int size) { this(size, Runtime.getRuntime().availableProcessors()); }
+
+	/**
+	 * @param size        maximum number of entries
+	 * @param bufferCount number of read buffers, rounded up to a power of two
+	 */
+	public ReadBufferedLRUCache(int size, int bufferCount) {
+		if (size <= 0 || bufferCount <= 0)
+			throw new IllegalArgumentException();
+
+		int n = 1;
+		while (n < bufferCount)
+			n <<= 1;
+
+		this.size = size;
+		map = new ConcurrentHashMap<>(size);
+		bufferMask = n - 1;
+		@SuppressWarnings("unchecked")
+		ReadBuffer<K, V>[] buffers = (ReadBuffer<K, V>[]) new ReadBuffer<?, ?>[n];
+		this.buffers = buffers;
+		for (int i = 0; i < n; i++)
+			buffers[i] = new ReadBuffer<>();
+	}
+
+	public V get(K key) {
+		DLLNode<Pair<K, V>> node = map.get(key);
+		if (node == null)
+			return null;
+
+		ReadBuffer<K, V> buffer = buffers[(int) Thread.currentThread().getId() & bufferMask];
+		if (!buffer.offer(node) && lock.tryLock()) {
+			try {
+				drainBuffers();
+			} finally {
+				lock.unlock();
+			}
+		}
+		return node.getItem().b;
+	}
+
+	public void put(K key, V value) {
+		DLLNode<Pair<K, V>> newNode = new DLLNode<>(new Pair<>(key, value));
+
+		lock.lock();
+		try {
+			drainBuffers();
+
+			DLLNode<Pair<K, V>> oldNode = map.get(key);
+			if (oldNode != null) {
+				deList.replaceNode(oldNode, newNode);
+				deList.moveToFirst(newNode);
+			} else {
+				if (deList.size() > size - 1)
+					map.remove(deList.pollLast().getItem().a);
+
+				deList.addFirst(newNode);
+			}
+			map.put(key, newNode);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() { return map.size(); }
+
+	/**
+	 * Replays every buffered hit which still refers to a live node.</br>
+	 * Must be called while holding the lock.
+	 */
+	void drainBuffers() {
+		for (ReadBuffer<K, V> buffer : buffers)
+			buffer.drainTo(this);
+	}
+
+	void onHit(DLLNode<Pair<K, V>> node) {
+		// the node may have been evicted or replaced after it was recorded
+		if (map.get(node.getItem().a) == node)
+			deList.moveToFirst(node);
+	}
+
+	/**
+	 * A bounded multi producer, single consumer ring buffer which drops offers when it is full.
+	 */
+	static final class ReadBuffer<K, V> {
+		final AtomicReferenceArray<DLLNode<Pair<K, V>>> slots = new AtomicReferenceArray<>(BUFFER_SIZE);
+		final AtomicLong writeCount = new AtomicLong();
+		final AtomicLong readCount = new AtomicLong();
+
+		/**
+		 * @return false if the buffer is full and should be drained
+		 */
+		boolean offer(DLLNode<Pair<K, V>> node) {
+			long w = writeCount.get();
+			if (w - readCount.get() >= BUFFER_SIZE)
+				return false;
+
+			// losing the race is fine, the hit is dropped
+			if (writeCount.compareAndSet(w, w + 1))
+				slots.lazySet((int) w & BUFFER_MASK, node);
+			return true;
+		}
+
+		void drainTo(ReadBufferedLRUCache<K, V> cache) {
+			long r = readCount.get();
+			long w = writeCount.get();
+			for (; r < w; r++) {
+				int i = (int) r & BUFFER_MASK;
+				DLLNode<Pair<K, V>> node = slots.get(i);
+				if (node == null)
+					break; // claimed but not yet published, pick it up on the next drain
+
+				slots.lazySet(i, null);
+				cache.onHit(node);
+			}
+			readCount.lazySet(r);
+		}
+	}
+}
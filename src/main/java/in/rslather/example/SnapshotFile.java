@@ -0,0 +1,157 @@
+package in.rslather.example;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Reads and writes cache entries through memory-mapped windows of a file.</br>
+ * Layout: magic, version and entry count as ints, then per entry the key length, key bytes, value length and value
+ * bytes, from the most to the least recently used entry. The file is written next to its destination, forced to disk
+ * and moved in place when complete, so a crash never leaves a half written snapshot behind.
+ */
+final class SnapshotFile {
+	static final int MAGIC = 0x4C525553; // "LRUS"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 3 * Integer.BYTES;
+	static final int WINDOW = 1 << 24; // bytes mapped at a time
+
+	private SnapshotFile() {}
+
+	/**
+	 * @param entries copies of the entries of the cache, taken while it was consistent, encoded outside any lock
+	 */
+	static <K, V> void write(Path file, List<Pair<K, V>> entries, Codec<? super K> keyCodec,
+			Codec<? super V> valueCodec) throws IOException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try {
+			try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING)) {
+				ByteBuffer pending = ByteBuffer.allocate(WINDOW);
+				pending.putInt(MAGIC).putInt(VERSION).putInt(entries.size());
+
+				long base = 0; // file position of the start of pending
+				for (Pair<K, V> entry : entries) {
+					byte[] key = keyCodec.encode(entry.a);
+					byte[] value = valueCodec.encode(entry.b);
+
+					int needed = 2 * Integer.BYTES + key.length + value.length;
+					if (pending.remaining() < needed) {
+						base += mapWindow(channel, base, pending);
+						if (pending.capacity() < needed)
+							pending = ByteBuffer.allocate(needed);
+					}
+					pending.putInt(key.length).put(key).putInt(value.length).put(value);
+				}
+
+				// the last window goes through the channel, a mapping would grow the file past the data
+				pending.flip();
+				while (pending.hasRemaining())
+					base += channel.write(pending, base);
+				channel.force(true);
+			}
+
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (Throwable t) {
+			// the destination is untouched, do not leave the half written file next to it
+			try {
+				Files.deleteIfExists(tmp);
+			} catch (IOException e) {
+				t.addSuppressed(e);
+			}
+			throw t;
+		}
+	}
+
+	/**
+	 * Copies pending into a mapping of exactly its size at base and forces it to disk, pending is left empty.
+	 *
+	 * @return number of bytes written
+	 */
+	static int mapWindow(FileChannel channel, long base, ByteBuffer pending) throws IOException {
+		pending.flip();
+		int size = pending.remaining();
+		MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, base, size);
+		window.put(pending);
+		window.force();
+		pending.clear();
+		return size;
+	}
+
+	/**
+	 * Hands the entries to consumer from the most to the least recently used, until it returns false.
+	 *
+	 * @return number of entries read
+	 */
+	static <K, V> int read(Path file, Codec<? extends K> keyCodec, Codec<? extends V> valueCodec,
+			BiPredicate<? super K, ? super V> consumer) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			Window window = new Window(channel);
+
+			window.ensure(HEADER_BYTES);
+			if (window.buffer.getInt() != MAGIC)
+				throw new StreamCorruptedException(file + " is not a cache snapshot");
+			int version = window.buffer.getInt();
+			if (version != VERSION)
+				throw new StreamCorruptedException("unsupported snapshot version " + version);
+			int count = window.buffer.getInt();
+			if (count < 0)
+				throw new StreamCorruptedException("negative entry count " + count);
+
+			for (int i = 0; i < count; i++) {
+				K key = keyCodec.decode(window.bytes());
+				V value = valueCodec.decode(window.bytes());
+				if (!consumer.test(key, value))
+					return i;
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * A read only mapping which slides forward over the file.
+	 */
+	static final class Window {
+		final FileChannel channel;
+		final long fileSize;
+		MappedByteBuffer buffer;
+		long base = 0;
+
+		Window(FileChannel channel) throws IOException {
+			this.channel = channel;
+			fileSize = channel.size();
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(WINDOW, fileSize));
+		}
+
+		void ensure(int needed) throws IOException {
+			if (buffer.remaining() >= needed)
+				return;
+
+			base += buffer.position();
+			if (fileSize - base < needed)
+				throw new StreamCorruptedException("snapshot is truncated");
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(Math.max(WINDOW, needed), fileSize - base));
+		}
+
+		byte[] bytes() throws IOException {
+			ensure(Integer.BYTES);
+			int length = buffer.getInt();
+			if (length < 0)
+				throw new StreamCorruptedException("negative length " + length);
+
+			ensure(length);
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			return bytes;
+		}
+	}
+}
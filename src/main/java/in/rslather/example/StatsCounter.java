@@ -0,0 +1,51 @@
+package in.rslather.example;
+
+/**
+ * Receives the events of a cache.</br>
+ * {@link #DISABLED} ignores everything, caches check for it so that a cache without stats does not even read the
+ * clock.
+ */
+public interface StatsCounter {
+	StatsCounter DISABLED = new StatsCounter() {
+		public void recordHit() {}
+
+		public void recordMiss() {}
+
+		public void recordPut() {}
+
+		public void recordUpdate() {}
+
+		public void recordEviction() {}
+
+		public void recordGetLatency(long nanos) {}
+
+		public void recordPutLatency(long nanos) {}
+
+		public CacheStats snapshot() { return CacheStats.EMPTY; }
+	};
+
+	void recordHit();
+
+	void recordMiss();
+
+	/**
+	 * Called for every put, whether it adds a new entry or updates an existing one.
+	 */
+	void recordPut();
+
+	/**
+	 * Called for a put which replaced the value of an existing entry.
+	 */
+	void recordUpdate();
+
+	void recordEviction();
+
+	void recordGetLatency(long nanos);
+
+	void recordPutLatency(long nanos);
+
+	/**
+	 * @return the counts so far, later events do not change the returned object
+	 */
+	CacheStats snapshot();
+}
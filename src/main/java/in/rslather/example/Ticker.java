@@ -0,0 +1,14 @@
+package in.rslather.example;
+
+/**
+ * A source of nanosecond time, replaceable so that time based behavior can be tested without sleeping.
+ */
+@FunctionalInterface
+public interface Ticker {
+	Ticker SYSTEM = System::nanoTime;
+
+	/**
+	 * @return nanoseconds since some fixed but arbitrary origin
+	 */
+	long read();
+}
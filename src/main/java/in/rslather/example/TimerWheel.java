@@ -0,0 +1,140 @@
+package in.rslather.example;
+
+import java.util.function.Consumer;
+
+import in.rslather.DLLNode;
+import in.rslather.DoublyLinkedList;
+
+/**
+ * A hierarchical timer wheel, every bucket is a DoublyLinkedList so scheduling, rescheduling and cancelling are O(1)
+ * node moves.</br>
+ * The levels have buckets of 2^30, 2^36, 2^42, 2^47 and 2^49 nanoseconds (about 1.07 seconds, 1.15 minutes, 1.22
+ * hours, 1.63 days and 6.5 days), each level spans one bucket of the next. A timer goes into the finest level which
+ * can hold it, timers further out than 6.5 days wait in the single bucket of the last level. When a coarse bucket is
+ * reached its timers are either expired or cascaded down to a finer level.
+ * Timers fire late by at most the width of a level 0 bucket, callers needing exact expiry should check the time too.
+ *
+ * @param <T>
+ */
+public class TimerWheel<T> {
+	static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+	static final long[] SPANS = { 1L << 30, 1L << 36, 1L << 42, 1L << 47, 1L << 49, 1L << 49 };
+	static final int[] SHIFTS = { 30, 36, 42, 47, 49 };
+
+	final DoublyLinkedList<T>[][] wheel;
+	final Consumer<T> onExpiry;
+	long nanos;
+
+	/**
+	 * A node which can be scheduled on a TimerWheel.
+	 *
+	 * @param <T>
+	 */
+	public static class Node<T> extends DLLNode<T> {
+		private static final long serialVersionUID = 1L;
+
+		long time;
+		transient DoublyLinkedList<T> bucket = null;
+
+		public Node(T item) { super(item); }
+
+		public long getTime() { return time; }
+
+		public boolean isScheduled() { return bucket != null; }
+	}
+
+	/**
+	 * @param now      current time in nanoseconds
+	 * @param onExpiry called with the item of every timer which expires during {@link #advance(long)}
+	 */
+	public TimerWheel(long now, Consumer<T> onExpiry) {
+		this.nanos = now;
+		this.onExpiry = onExpiry;
+
+		@SuppressWarnings("unchecked")
+		DoublyLinkedList<T>[][] levels = (DoublyLinkedList<T>[][]) new DoublyLinkedList<?>[BUCKETS.length][];
+		wheel = levels;
+		for (int i = 0; i < BUCKETS.length; i++) {
+			@SuppressWarnings("unchecked")
+			DoublyLinkedList<T>[] buckets = (DoublyLinkedList<T>[]) new DoublyLinkedList<?>[BUCKETS[i]];
+			wheel[i] = buckets;
+			for (int j = 0; j < BUCKETS[i]; j++)
+				wheel[i][j] = new DoublyLinkedList<>();
+		}
+	}
+
+	/**
+	 * Schedules the node to expire at time, cancelling its previous schedule if there is one.
+	 */
+	public void schedule(Node<T> node, long time) {
+		cancel(node);
+
+		node.time = time;
+		node.bucket = bucketFor(time);
+		node.bucket.addLast(node);
+	}
+
+	public void cancel(Node<T> node) {
+		if (node.bucket == null)
+			return;
+
+		node.bucket.removeNode(node);
+		node.bucket = null;
+	}
+
+	/**
+	 * Moves the wheel to now, calling onExpiry for every timer at or before now.
+	 */
+	public void advance(long now) {
+		long previous = nanos;
+		nanos = now;
+
+		// System.nanoTime() may pass zero, flip the sign of both so the unsigned ticks below keep their order, the low
+		// bits which pick the buckets stay the same
+		if (previous < 0 && now >= 0) {
+			previous += Long.MIN_VALUE;
+			now += Long.MIN_VALUE;
+		}
+
+		for (int i = 0; i < SHIFTS.length; i++) {
+			long previousTicks = previous >>> SHIFTS[i];
+			long currentTicks = now >>> SHIFTS[i];
+			if (currentTicks - previousTicks <= 0)
+				break;
+			expire(i, previousTicks, currentTicks - previousTicks);
+		}
+	}
+
+	DoublyLinkedList<T> bucketFor(long time) {
+		long duration = time - nanos;
+		for (int i = 0; i < SHIFTS.length - 1; i++)
+			if (duration < SPANS[i + 1]) {
+				long ticks = time >>> SHIFTS[i];
+				return wheel[i][(int) ticks & (BUCKETS[i] - 1)];
+			}
+		return wheel[SHIFTS.length - 1][0];
+	}
+
+	@SuppressWarnings("unchecked")
+	void expire(int level, long previousTicks, long delta) {
+		DoublyLinkedList<T>[] buckets = wheel[level];
+		int mask = buckets.length - 1;
+		int steps = (int) Math.min(delta + 1, buckets.length);
+		int start = (int) previousTicks & mask;
+
+		for (int i = 0; i < steps; i++) {
+			DoublyLinkedList<T> bucket = buckets[(start + i) & mask];
+
+			// only the nodes present now, a node cascading down may land in this bucket again
+			for (int j = bucket.size(); j > 0; j--) {
+				Node<T> node = (Node<T>) bucket.pollFirst();
+				node.bucket = null;
+
+				if (node.time - nanos <= 0)
+					onExpiry.accept(node.getItem());
+				else
+					schedule(node, node.time);
+			}
+		}
+	}
+}
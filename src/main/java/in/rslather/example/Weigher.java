@@ -0,0 +1,17 @@
+package in.rslather.example;
+
+/**
+ * Computes the weight of a cache entry, for caches bounded by total weight (e.g. bytes) instead of entry count.</br>
+ * The weight is computed once when an entry is inserted or updated, the cache stores it and subtracts that stored
+ * weight when the entry leaves, so a value which changes later does not unbalance the total.
+ *
+ * @param <K>
+ * @param <V>
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+	/**
+	 * @return weight of the entry, must not be negative
+	 */
+	long weigh(K key, V value);
+}
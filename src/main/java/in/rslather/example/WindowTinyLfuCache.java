@@ -0,0 +1,146 @@
+package in.rslather.example;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import in.rslather.DLLNode;
+import in.rslather.DoublyLinkedList;
+
+/**
+ * A cache with the W-TinyLFU policy, which keeps a hot set alive through scans that would flush an LRUCache.</br>
+ * New entries go into a small window LRU (1% of the size). Entries leaving the window compete with the least recently
+ * used entry of the probation segment, and the one a {@link FrequencySketch} has seen more often stays. A hit in
+ * probation promotes the entry to the protected segment (80% of the main space), entries falling out of protected
+ * go back to probation. All three segments are DoublyLinkedLists with the most recent entry first, so every move is
+ * O(1).
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class WindowTinyLfuCache<K, V> {
+	static final int WINDOW = 0;
+	static final int PROBATION = 1;
+	static final int PROTECTED = 2;
+
+	final DoublyLinkedList<Entry<K, V>> window = new DoublyLinkedList<>();
+	final DoublyLinkedList<Entry<K, V>> probation = new DoublyLinkedList<>();
+	final DoublyLinkedList<Entry<K, V>> protectedList = new DoublyLinkedList<>();
+	final Map<K, DLLNode<Entry<K, V>>> map;
+	final FrequencySketch<K> sketch;
+
+	final int size;
+	final int windowSize;
+	final int protectedSize;
+
+	static final class Entry<K, V> {
+		final K key;
+		V value;
+		int queue = WINDOW;
+
+		Entry(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String toString() { return "Entry {key=" + key + ", value=" + value + "}"; }
+	}
+
+	public WindowTinyLfuCache(int size) {
+		if (size <= 0)
+			throw new IllegalArgumentException();
+
+		this.size = size;
+		windowSize = Math.max(1, size / 100);
+		protectedSize = (int) ((size - windowSize) * 0.8);
+		map = new HashMap<>(size);
+		sketch = new FrequencySketch<>(size);
+	}
+
+	public V get(K key) {
+		sketch.increment(key);
+
+		DLLNode<Entry<K, V>> node = map.get(key);
+		if (node == null)
+			return null;
+
+		onHit(node);
+		return node.getItem().value;
+	}
+
+	public void put(K key, V value) {
+		sketch.increment(key);
+
+		DLLNode<Entry<K, V>> node = map.get(key);
+		if (node != null) {
+			node.getItem().value = value;
+			onHit(node);
+			return;
+		}
+
+		node = new DLLNode<>(new Entry<>(key, value));
+		map.put(key, node);
+		window.addFirst(node);
+
+		if (window.size() > windowSize)
+			admit(window.pollLast());
+	}
+
+	public int size() { return map.size(); }
+
+	void onHit(DLLNode<Entry<K, V>> node) {
+		Entry<K, V> entry = node.getItem();
+		switch (entry.queue) {
+		case WINDOW:
+			window.moveToFirst(node);
+			break;
+		case PROBATION:
+			probation.removeNode(node);
+			entry.queue = PROTECTED;
+			protectedList.addFirst(node);
+
+			if (protectedList.size() > protectedSize) {
+				DLLNode<Entry<K, V>> demoted = protectedList.pollLast();
+				demoted.getItem().queue = PROBATION;
+				probation.addFirst(demoted);
+			}
+			break;
+		default:
+			protectedList.moveToFirst(node);
+		}
+	}
+
+	/**
+	 * The candidate left the window, it enters probation if there is room or if it is more popular than the probation
+	 * victim, otherwise it is evicted.
+	 */
+	void admit(DLLNode<Entry<K, V>> candidate) {
+		candidate.getItem().queue = PROBATION;
+
+		if (probation.size() + protectedList.size() < size - windowSize) {
+			probation.addFirst(candidate);
+			return;
+		}
+
+		if (probation.isEmpty() && protectedList.isEmpty()) {
+			map.remove(candidate.getItem().key); // no main space at all
+			return;
+		}
+
+		DLLNode<Entry<K, V>> victim = probation.isEmpty() ? protectedList.peekLast() : probation.peekLast();
+		if (sketch.frequency(candidate.getItem().key) > sketch.frequency(victim.getItem().key)) {
+			evict(victim);
+			probation.addFirst(candidate);
+		} else {
+			map.remove(candidate.getItem().key);
+		}
+	}
+
+	void evict(DLLNode<Entry<K, V>> node) {
+		if (node.getItem().queue == PROTECTED)
+			protectedList.removeNode(node);
+		else
+			probation.removeNode(node);
+		map.remove(node.getItem().key);
+	}
+}
@@ -4,7 +4,10 @@ import java.io.Serializable;
 import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * A collection for when order is not important.</br>
@@ -15,6 +18,8 @@ import java.util.Iterator;
  */
 public class ArrayBag<E> extends AbstractCollection<E> implements Serializable {
 	private static final long serialVersionUID = 1L;
+	// argument collections bigger than this which are not sets are copied into a HashSet by the bulk operations
+	static final int HASH_THRESHOLD = 16;
 
 	final ArrayList<E> array;
 
@@ -30,7 +35,7 @@ public class ArrayBag<E> extends AbstractCollection<E> implements Serializable {
 
 	public E remove(int i) {
 		E removed = set(i, get(size() - 1)); // last element is copied to pos i
-		remove(size() - 1); // last element (duplicate) is removed
+		array.remove(size() - 1); // last element (duplicate) is removed
 		return removed; // returned removed element
 	}
 
@@ -63,22 +68,53 @@ public class ArrayBag<E> extends AbstractCollection<E> implements Serializable {
 
 	@Override
 	public boolean removeAll(Collection<?> c) {
-		int oldSize = size();
-		for (int j = 0; j < array.size(); j++)
-			if (c.contains(array.get(j)))
-				remove(j);
-
-		return oldSize < size();
+		Collection<?> lookup = forLookup(c);
+		return removeIf(lookup::contains);
 	}
 
 	@Override
 	public boolean retainAll(Collection<?> c) {
-		int oldSize = size();
-		for (int j = 0; j < array.size(); j++)
-			if (!c.contains(array.get(j)))
-				remove(j);
+		Collection<?> lookup = forLookup(c);
+		return removeIf(e -> !lookup.contains(e));
+	}
 
-		return oldSize < size();
+	/**
+	 * Removes the matching elements in a single pass, the kept elements are compacted to the front in their current
+	 * order. If filter throws, the elements it did not get to are kept and the bag is left consistent.
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super E> filter) {
+		int size = size();
+		int kept = 0;
+		int i = 0;
+		try {
+			for (; i < size; i++) {
+				E e = array.get(i);
+				if (!filter.test(e)) {
+					if (kept != i)
+						array.set(kept, e);
+					kept++;
+				}
+			}
+		} finally {
+			// finish the compaction, only left over elements if filter threw
+			for (; i < size; i++, kept++)
+				if (kept != i)
+					array.set(kept, array.get(i));
+
+			if (kept != size)
+				array.subList(kept, size).clear();
+		}
+		return kept != size;
+	}
+
+	/**
+	 * @return c itself if its contains is cheap, otherwise a HashSet copy of it
+	 */
+	static Collection<?> forLookup(Collection<?> c) {
+		if (c instanceof Set || c.size() <= HASH_THRESHOLD)
+			return c;
+		return new HashSet<>(c);
 	}
 
 	@Override
@@ -0,0 +1,258 @@
+package in.rslather.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * A Dequeue backed by a circular array.</br>
+ * Like ArrayListDeque it has O(1) get and set operations, but adding and removing at either end is amortized O(1), so
+ * it works as well as a queue as it does as a stack. Inserting or removing in the middle shifts the shorter side.
+ *
+ * @param <E>
+ */
+public class CircularArrayDeque<E> extends AbstractListDeque<E> {
+	private static final long serialVersionUID = 1L;
+	static final int DEFAULT_CAPACITY = 16;
+
+	Object[] elements; // length is always a power of two
+	int head = 0; // array index of the first element
+	int count = 0;
+
+	public CircularArrayDeque() { this(DEFAULT_CAPACITY); }
+
+	public CircularArrayDeque(int initSize) {
+		super((ArrayList<E>) null); // the backing ArrayList of AbstractListDeque is not used
+		elements = new Object[capacityFor(initSize)];
+	}
+
+	public CircularArrayDeque(Collection<? extends E> c) {
+		this(c.size());
+		addAll(c);
+	}
+
+	static int capacityFor(int size) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		return Math.max(Integer.highestOneBit(Math.max(size, 1) * 2 - 1), 2);
+	}
+
+	@Override
+	int firstI() { return 0; }
+
+	@Override
+	int lastI() { return count - 1; }
+
+	@Override
+	int toArrayI(int i) { return (head + i) & (elements.length - 1); }
+
+	void ensureCapacity(int size) {
+		if (size <= elements.length)
+			return;
+
+		Object[] grown = new Object[capacityFor(size)];
+		copyOut(grown, 0);
+		elements = grown;
+		head = 0;
+	}
+
+	/**
+	 * Copies the elements in list order into dest starting at pos.
+	 */
+	void copyOut(Object[] dest, int pos) {
+		int firstPart = Math.min(count, elements.length - head);
+		System.arraycopy(elements, head, dest, pos, firstPart);
+		System.arraycopy(elements, 0, dest, pos + firstPart, count - firstPart);
+	}
+
+	static void checkIndex(int index, int bound) {
+		if (index < 0 || index >= bound)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+	}
+
+	@Override
+	public int size() { return count; }
+
+	@Override
+	public void addFirst(E e) {
+		ensureCapacity(count + 1);
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = e;
+		count++;
+		modCount++;
+	}
+
+	@Override
+	public void addLast(E e) {
+		ensureCapacity(count + 1);
+		elements[toArrayI(count)] = e;
+		count++;
+		modCount++;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E pollFirst() {
+		if (isEmpty())
+			return null;
+
+		E e = (E) elements[head];
+		elements[head] = null;
+		head = (head + 1) & (elements.length - 1);
+		count--;
+		modCount++;
+		return e;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E pollLast() {
+		if (isEmpty())
+			return null;
+
+		int i = toArrayI(count - 1);
+		E e = (E) elements[i];
+		elements[i] = null;
+		count--;
+		modCount++;
+		return e;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int i) {
+		checkIndex(i, count);
+		return (E) elements[toArrayI(i)];
+	}
+
+	@Override
+	public E set(int i, E e) {
+		E old = get(i);
+		elements[toArrayI(i)] = e;
+		return old;
+	}
+
+	@Override
+	public void add(int index, E element) {
+		checkIndex(index, count + 1);
+		ensureCapacity(count + 1);
+
+		if (index < count - index) {
+			head = (head - 1) & (elements.length - 1);
+			for (int i = 0; i < index; i++)
+				elements[toArrayI(i)] = elements[toArrayI(i + 1)];
+		} else {
+			for (int i = count; i > index; i--)
+				elements[toArrayI(i)] = elements[toArrayI(i - 1)];
+		}
+		elements[toArrayI(index)] = element;
+		count++;
+		modCount++;
+	}
+
+	@Override
+	public E remove(int index) {
+		E removed = get(index);
+
+		if (index < count - 1 - index) {
+			for (int i = index; i > 0; i--)
+				elements[toArrayI(i)] = elements[toArrayI(i - 1)];
+			elements[head] = null;
+			head = (head + 1) & (elements.length - 1);
+		} else {
+			for (int i = index; i < count - 1; i++)
+				elements[toArrayI(i)] = elements[toArrayI(i + 1)];
+			elements[toArrayI(count - 1)] = null;
+		}
+		count--;
+		modCount++;
+		return removed;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		for (int i = 0; i < count; i++)
+			if (Objects.equals(o, elements[toArrayI(i)]))
+				return i;
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		for (int i = count - 1; i >= 0; i--)
+			if (Objects.equals(o, elements[toArrayI(i)]))
+				return i;
+		return -1;
+	}
+
+	@Override
+	public boolean contains(Object o) { return indexOf(o) >= 0; }
+
+	@Override
+	public boolean removeFirstOccurrence(Object o) {
+		int i = indexOf(o);
+		if (i < 0)
+			return false;
+
+		remove(i);
+		return true;
+	}
+
+	@Override
+	public boolean removeLastOccurrence(Object o) {
+		int i = lastIndexOf(o);
+		if (i < 0)
+			return false;
+
+		remove(i);
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) { return removeFirstOccurrence(o); }
+
+	@Override
+	public void clear() {
+		Arrays.fill(elements, null);
+		head = 0;
+		count = 0;
+		modCount++;
+	}
+
+	// Bulk methods
+
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		for (Object o : c)
+			if (!contains(o))
+				return false;
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		Object[] added = c.toArray();
+		if (added.length == 0)
+			return false;
+
+		ensureCapacity(count + added.length);
+
+		// at most two copies, the free space may wrap around the end of the array
+		int tail = toArrayI(count);
+		int firstPart = Math.min(added.length, elements.length - tail);
+		System.arraycopy(added, 0, elements, tail, firstPart);
+		System.arraycopy(added, firstPart, elements, 0, added.length - firstPart);
+
+		count += added.length;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] array = new Object[count];
+		copyOut(array, 0);
+		return array;
+	}
+}
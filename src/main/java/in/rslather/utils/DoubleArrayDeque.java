@@ -0,0 +1,189 @@
+package in.rslather.utils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleConsumer;
+
+/**
+ * A Dequeue of unboxed doubles backed by a circular double array.</br>
+ * Follows the API of DefaultDeque: add/offer/push, poll/peek (empty OptionalDouble when there is no element) and
+ * remove/get/pop (NoSuchElementException when there is no element). get and set by index are O(1) and adding or
+ * removing at either end is amortized O(1).
+ */
+public class DoubleArrayDeque implements Serializable {
+	private static final long serialVersionUID = 1L;
+	static final int DEFAULT_CAPACITY = 16;
+
+	double[] elements; // length is always a power of two
+	int head = 0; // array index of the first element
+	int count = 0;
+
+	public DoubleArrayDeque() { this(DEFAULT_CAPACITY); }
+
+	public DoubleArrayDeque(int initSize) { elements = new double[CircularArrayDeque.capacityFor(initSize)]; }
+
+	int toArrayI(int i) { return (head + i) & (elements.length - 1); }
+
+	void ensureCapacity(int size) {
+		if (size <= elements.length)
+			return;
+
+		double[] grown = new double[CircularArrayDeque.capacityFor(size)];
+		int firstPart = Math.min(count, elements.length - head);
+		System.arraycopy(elements, head, grown, 0, firstPart);
+		System.arraycopy(elements, 0, grown, firstPart, count - firstPart);
+		elements = grown;
+		head = 0;
+	}
+
+	double ifEmptyExcept(int i) {
+		if (count == 0)
+			throw new NoSuchElementException();
+		return elements[i];
+	}
+
+	public int size() { return count; }
+
+	public boolean isEmpty() { return count == 0; }
+
+	public void addFirst(double e) {
+		ensureCapacity(count + 1);
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = e;
+		count++;
+	}
+
+	public void addLast(double e) {
+		ensureCapacity(count + 1);
+		elements[toArrayI(count)] = e;
+		count++;
+	}
+
+	public boolean offerFirst(double e) {
+		addFirst(e);
+		return true;
+	}
+
+	public boolean offerLast(double e) {
+		addLast(e);
+		return true;
+	}
+
+	public double removeFirst() {
+		double e = ifEmptyExcept(head);
+		head = (head + 1) & (elements.length - 1);
+		count--;
+		return e;
+	}
+
+	public double removeLast() {
+		double e = ifEmptyExcept(toArrayI(count - 1));
+		count--;
+		return e;
+	}
+
+	public OptionalDouble pollFirst() { return isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(removeFirst()); }
+
+	public OptionalDouble pollLast() { return isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(removeLast()); }
+
+	public double getFirst() { return ifEmptyExcept(head); }
+
+	public double getLast() { return ifEmptyExcept(toArrayI(count - 1)); }
+
+	public OptionalDouble peekFirst() { return isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(getFirst()); }
+
+	public OptionalDouble peekLast() { return isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(getLast()); }
+
+	public boolean add(double e) { return offerLast(e); }
+
+	public boolean offer(double e) { return offerLast(e); }
+
+	public double remove() { return removeFirst(); }
+
+	public OptionalDouble poll() { return pollFirst(); }
+
+	public double element() { return getFirst(); }
+
+	public OptionalDouble peek() { return peekFirst(); }
+
+	public void push(double e) { addFirst(e); }
+
+	public double pop() { return removeFirst(); }
+
+	public double get(int i) {
+		if (i < 0 || i >= count)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + count);
+		return elements[toArrayI(i)];
+	}
+
+	public double set(int i, double e) {
+		double old = get(i);
+		elements[toArrayI(i)] = e;
+		return old;
+	}
+
+	/**
+	 * Compares like Double.equals, so NaN can be found and 0.0 and -0.0 are different.
+	 */
+	public boolean contains(double e) {
+		long bits = Double.doubleToLongBits(e);
+		for (int i = 0; i < count; i++)
+			if (Double.doubleToLongBits(elements[toArrayI(i)]) == bits)
+				return true;
+		return false;
+	}
+
+	public void clear() {
+		head = 0;
+		count = 0;
+	}
+
+	public double[] toArray() {
+		double[] array = new double[count];
+		int firstPart = Math.min(count, elements.length - head);
+		System.arraycopy(elements, head, array, 0, firstPart);
+		System.arraycopy(elements, 0, array, firstPart, count - firstPart);
+		return array;
+	}
+
+	// iterators
+
+	public void forEach(DoubleConsumer action) {
+		for (int i = 0; i < count; i++)
+			action.accept(elements[toArrayI(i)]);
+	}
+
+	public PrimitiveIterator.OfDouble iterator() {
+		return new PrimitiveIterator.OfDouble() {
+			int nextI = 0;
+
+			public boolean hasNext() { return nextI < count; }
+
+			public double nextDouble() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return elements[toArrayI(nextI++)];
+			}
+		};
+	}
+
+	public PrimitiveIterator.OfDouble descendingIterator() {
+		return new PrimitiveIterator.OfDouble() {
+			int nextI = count - 1;
+
+			public boolean hasNext() { return nextI >= 0; }
+
+			public double nextDouble() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return elements[toArrayI(nextI--)];
+			}
+		};
+	}
+
+	@Override
+	public String toString() { return Arrays.toString(toArray()); }
+}
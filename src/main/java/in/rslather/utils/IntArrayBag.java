@@ -0,0 +1,135 @@
+package in.rslather.utils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * An ArrayBag of unboxed ints, for when order is not important.</br>
+ * Removing by index is O(1) (the last element is moved into the hole). Methods which remove take either an index
+ * (removeAt) or a value (removeValue) so the two can never be confused.
+ */
+public class IntArrayBag implements Serializable {
+	private static final long serialVersionUID = 1L;
+	static final int DEFAULT_CAPACITY = 16;
+
+	int[] array;
+	int count = 0;
+
+	public IntArrayBag() { this(DEFAULT_CAPACITY); }
+
+	public IntArrayBag(int initSize) { array = new int[initSize]; }
+
+	public IntArrayBag(int[] values) {
+		array = values.clone();
+		count = values.length;
+	}
+
+	void checkIndex(int i) {
+		if (i < 0 || i >= count)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + count);
+	}
+
+	public int size() { return count; }
+
+	public boolean isEmpty() { return count == 0; }
+
+	public int get(int i) {
+		checkIndex(i);
+		return array[i];
+	}
+
+	public int set(int i, int e) {
+		int old = get(i);
+		array[i] = e;
+		return old;
+	}
+
+	public boolean add(int e) {
+		if (count == array.length)
+			array = Arrays.copyOf(array, count + (count >> 1) + 1);
+		array[count++] = e;
+		return true;
+	}
+
+	public boolean addAll(int[] values) {
+		if (count + values.length > array.length)
+			array = Arrays.copyOf(array, Math.max(count + values.length, count + (count >> 1) + 1));
+		System.arraycopy(values, 0, array, count, values.length);
+		count += values.length;
+		return values.length > 0;
+	}
+
+	/**
+	 * @param i index of the element to be removed, the last element takes its place
+	 * @return removed element
+	 */
+	public int removeAt(int i) {
+		int removed = get(i);
+		array[i] = array[--count];
+		return removed;
+	}
+
+	/**
+	 * Removes one occurrence of the value.
+	 */
+	public boolean removeValue(int e) {
+		int i = indexOf(e);
+		if (i < 0)
+			return false;
+
+		removeAt(i);
+		return true;
+	}
+
+	public int indexOf(int e) {
+		for (int i = 0; i < count; i++)
+			if (array[i] == e)
+				return i;
+		return -1;
+	}
+
+	public boolean contains(int e) { return indexOf(e) >= 0; }
+
+	public void clear() { count = 0; }
+
+	/**
+	 * @return a copy of the elements, changes to it will not effect the bag in any way.
+	 */
+	public int[] toArray() { return Arrays.copyOf(array, count); }
+
+	// iterators
+
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < count; i++)
+			action.accept(array[i]);
+	}
+
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			int nextI = 0;
+			boolean canRemove = false;
+
+			public boolean hasNext() { return nextI < count; }
+
+			public int nextInt() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				canRemove = true;
+				return array[nextI++];
+			}
+
+			public void remove() {
+				if (!canRemove)
+					throw new IllegalStateException();
+				canRemove = false;
+				removeAt(--nextI); // the last element moved in here, it still has to be returned
+			}
+		};
+	}
+
+	@Override
+	public String toString() { return Arrays.toString(toArray()); }
+}
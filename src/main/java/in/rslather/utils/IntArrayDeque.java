@@ -0,0 +1,185 @@
+package in.rslather.utils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * A Dequeue of unboxed ints backed by a circular int array.</br>
+ * Follows the API of DefaultDeque: add/offer/push, poll/peek (empty OptionalInt when there is no element) and
+ * remove/get/pop (NoSuchElementException when there is no element). get and set by index are O(1) and adding or
+ * removing at either end is amortized O(1).
+ */
+public class IntArrayDeque implements Serializable {
+	private static final long serialVersionUID = 1L;
+	static final int DEFAULT_CAPACITY = 16;
+
+	int[] elements; // length is always a power of two
+	int head = 0; // array index of the first element
+	int count = 0;
+
+	public IntArrayDeque() { this(DEFAULT_CAPACITY); }
+
+	public IntArrayDeque(int initSize) { elements = new int[CircularArrayDeque.capacityFor(initSize)]; }
+
+	int toArrayI(int i) { return (head + i) & (elements.length - 1); }
+
+	void ensureCapacity(int size) {
+		if (size <= elements.length)
+			return;
+
+		int[] grown = new int[CircularArrayDeque.capacityFor(size)];
+		int firstPart = Math.min(count, elements.length - head);
+		System.arraycopy(elements, head, grown, 0, firstPart);
+		System.arraycopy(elements, 0, grown, firstPart, count - firstPart);
+		elements = grown;
+		head = 0;
+	}
+
+	int ifEmptyExcept(int i) {
+		if (count == 0)
+			throw new NoSuchElementException();
+		return elements[i];
+	}
+
+	public int size() { return count; }
+
+	public boolean isEmpty() { return count == 0; }
+
+	public void addFirst(int e) {
+		ensureCapacity(count + 1);
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = e;
+		count++;
+	}
+
+	public void addLast(int e) {
+		ensureCapacity(count + 1);
+		elements[toArrayI(count)] = e;
+		count++;
+	}
+
+	public boolean offerFirst(int e) {
+		addFirst(e);
+		return true;
+	}
+
+	public boolean offerLast(int e) {
+		addLast(e);
+		return true;
+	}
+
+	public int removeFirst() {
+		int e = ifEmptyExcept(head);
+		head = (head + 1) & (elements.length - 1);
+		count--;
+		return e;
+	}
+
+	public int removeLast() {
+		int e = ifEmptyExcept(toArrayI(count - 1));
+		count--;
+		return e;
+	}
+
+	public OptionalInt pollFirst() { return isEmpty() ? OptionalInt.empty() : OptionalInt.of(removeFirst()); }
+
+	public OptionalInt pollLast() { return isEmpty() ? OptionalInt.empty() : OptionalInt.of(removeLast()); }
+
+	public int getFirst() { return ifEmptyExcept(head); }
+
+	public int getLast() { return ifEmptyExcept(toArrayI(count - 1)); }
+
+	public OptionalInt peekFirst() { return isEmpty() ? OptionalInt.empty() : OptionalInt.of(getFirst()); }
+
+	public OptionalInt peekLast() { return isEmpty() ? OptionalInt.empty() : OptionalInt.of(getLast()); }
+
+	public boolean add(int e) { return offerLast(e); }
+
+	public boolean offer(int e) { return offerLast(e); }
+
+	public int remove() { return removeFirst(); }
+
+	public OptionalInt poll() { return pollFirst(); }
+
+	public int element() { return getFirst(); }
+
+	public OptionalInt peek() { return peekFirst(); }
+
+	public void push(int e) { addFirst(e); }
+
+	public int pop() { return removeFirst(); }
+
+	public int get(int i) {
+		if (i < 0 || i >= count)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + count);
+		return elements[toArrayI(i)];
+	}
+
+	public int set(int i, int e) {
+		int old = get(i);
+		elements[toArrayI(i)] = e;
+		return old;
+	}
+
+	public boolean contains(int e) {
+		for (int i = 0; i < count; i++)
+			if (elements[toArrayI(i)] == e)
+				return true;
+		return false;
+	}
+
+	public void clear() {
+		head = 0;
+		count = 0;
+	}
+
+	public int[] toArray() {
+		int[] array = new int[count];
+		int firstPart = Math.min(count, elements.length - head);
+		System.arraycopy(elements, head, array, 0, firstPart);
+		System.arraycopy(elements, 0, array, firstPart, count - firstPart);
+		return array;
+	}
+
+	// iterators
+
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < count; i++)
+			action.accept(elements[toArrayI(i)]);
+	}
+
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			int nextI = 0;
+
+			public boolean hasNext() { return nextI < count; }
+
+			public int nextInt() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return elements[toArrayI(nextI++)];
+			}
+		};
+	}
+
+	public PrimitiveIterator.OfInt descendingIterator() {
+		return new PrimitiveIterator.OfInt() {
+			int nextI = count - 1;
+
+			public boolean hasNext() { return nextI >= 0; }
+
+			public int nextInt() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return elements[toArrayI(nextI--)];
+			}
+		};
+	}
+
+	@Override
+	public String toString() { return Arrays.toString(toArray()); }
+}
@@ -0,0 +1,135 @@
+package in.rslather.utils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * An ArrayBag of unboxed longs, for when order is not important.</br>
+ * Removing by index is O(1) (the last element is moved into the hole). Methods which remove take either an index
+ * (removeAt) or a value (removeValue) so the two can never be confused.
+ */
+public class LongArrayBag implements Serializable {
+	private static final long serialVersionUID = 1L;
+	static final int DEFAULT_CAPACITY = 16;
+
+	long[] array;
+	int count = 0;
+
+	public LongArrayBag() { this(DEFAULT_CAPACITY); }
+
+	public LongArrayBag(int initSize) { array = new long[initSize]; }
+
+	public LongArrayBag(long[] values) {
+		array = values.clone();
+		count = values.length;
+	}
+
+	void checkIndex(int i) {
+		if (i < 0 || i >= count)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + count);
+	}
+
+	public int size() { return count; }
+
+	public boolean isEmpty() { return count == 0; }
+
+	public long get(int i) {
+		checkIndex(i);
+		return array[i];
+	}
+
+	public long set(int i, long e) {
+		long old = get(i);
+		array[i] = e;
+		return old;
+	}
+
+	public boolean add(long e) {
+		if (count == array.length)
+			array = Arrays.copyOf(array, count + (count >> 1) + 1);
+		array[count++] = e;
+		return true;
+	}
+
+	public boolean addAll(long[] values) {
+		if (count + values.length > array.length)
+			array = Arrays.copyOf(array, Math.max(count + values.length, count + (count >> 1) + 1));
+		System.arraycopy(values, 0, array, count, values.length);
+		count += values.length;
+		return values.length > 0;
+	}
+
+	/**
+	 * @param i index of the element to be removed, the last element takes its place
+	 * @return removed element
+	 */
+	public long removeAt(int i) {
+		long removed = get(i);
+		array[i] = array[--count];
+		return removed;
+	}
+
+	/**
+	 * Removes one occurrence of the value.
+	 */
+	public boolean removeValue(long e) {
+		int i = indexOf(e);
+		if (i < 0)
+			return false;
+
+		removeAt(i);
+		return true;
+	}
+
+	public int indexOf(long e) {
+		for (int i = 0; i < count; i++)
+			if (array[i] == e)
+				return i;
+		return -1;
+	}
+
+	public boolean contains(long e) { return indexOf(e) >= 0; }
+
+	public void clear() { count = 0; }
+
+	/**
+	 * @return a copy of the elements, changes to it will not effect the bag in any way.
+	 */
+	public long[] toArray() { return Arrays.copyOf(array, count); }
+
+	// iterators
+
+	public void forEach(LongConsumer action) {
+		for (int i = 0; i < count; i++)
+			action.accept(array[i]);
+	}
+
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+			int nextI = 0;
+			boolean canRemove = false;
+
+			public boolean hasNext() { return nextI < count; }
+
+			public long nextLong() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				canRemove = true;
+				return array[nextI++];
+			}
+
+			public void remove() {
+				if (!canRemove)
+					throw new IllegalStateException();
+				canRemove = false;
+				removeAt(--nextI); // the last element moved in here, it still has to be returned
+			}
+		};
+	}
+
+	@Override
+	public String toString() { return Arrays.toString(toArray()); }
+}
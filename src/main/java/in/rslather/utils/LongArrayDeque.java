@@ -0,0 +1,185 @@
+package in.rslather.utils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * A Dequeue of unboxed longs backed by a circular long array.</br>
+ * Follows the API of DefaultDeque: add/offer/push, poll/peek (empty OptionalLong when there is no element) and
+ * remove/get/pop (NoSuchElementException when there is no element). get and set by index are O(1) and adding or
+ * removing at either end is amortized O(1).
+ */
+public class LongArrayDeque implements Serializable {
+	private static final long serialVersionUID = 1L;
+	static final int DEFAULT_CAPACITY = 16;
+
+	long[] elements; // length is always a power of two
+	int head = 0; // array index of the first element
+	int count = 0;
+
+	public LongArrayDeque() { this(DEFAULT_CAPACITY); }
+
+	public LongArrayDeque(int initSize) { elements = new long[CircularArrayDeque.capacityFor(initSize)]; }
+
+	int toArrayI(int i) { return (head + i) & (elements.length - 1); }
+
+	void ensureCapacity(int size) {
+		if (size <= elements.length)
+			return;
+
+		long[] grown = new long[CircularArrayDeque.capacityFor(size)];
+		int firstPart = Math.min(count, elements.length - head);
+		System.arraycopy(elements, head, grown, 0, firstPart);
+		System.arraycopy(elements, 0, grown, firstPart, count - firstPart);
+		elements = grown;
+		head = 0;
+	}
+
+	long ifEmptyExcept(int i) {
+		if (count == 0)
+			throw new NoSuchElementException();
+		return elements[i];
+	}
+
+	public int size() { return count; }
+
+	public boolean isEmpty() { return count == 0; }
+
+	public void addFirst(long e) {
+		ensureCapacity(count + 1);
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = e;
+		count++;
+	}
+
+	public void addLast(long e) {
+		ensureCapacity(count + 1);
+		elements[toArrayI(count)] = e;
+		count++;
+	}
+
+	public boolean offerFirst(long e) {
+		addFirst(e);
+		return true;
+	}
+
+	public boolean offerLast(long e) {
+		addLast(e);
+		return true;
+	}
+
+	public long removeFirst() {
+		long e = ifEmptyExcept(head);
+		head = (head + 1) & (elements.length - 1);
+		count--;
+		return e;
+	}
+
+	public long removeLast() {
+		long e = ifEmptyExcept(toArrayI(count - 1));
+		count--;
+		return e;
+	}
+
+	public OptionalLong pollFirst() { return isEmpty() ? OptionalLong.empty() : OptionalLong.of(removeFirst()); }
+
+	public OptionalLong pollLast() { return isEmpty() ? OptionalLong.empty() : OptionalLong.of(removeLast()); }
+
+	public long getFirst() { return ifEmptyExcept(head); }
+
+	public long getLast() { return ifEmptyExcept(toArrayI(count - 1)); }
+
+	public OptionalLong peekFirst() { return isEmpty() ? OptionalLong.empty() : OptionalLong.of(getFirst()); }
+
+	public OptionalLong peekLast() { return isEmpty() ? OptionalLong.empty() : OptionalLong.of(getLast()); }
+
+	public boolean add(long e) { return offerLast(e); }
+
+	public boolean offer(long e) { return offerLast(e); }
+
+	public long remove() { return removeFirst(); }
+
+	public OptionalLong poll() { return pollFirst(); }
+
+	public long element() { return getFirst(); }
+
+	public OptionalLong peek() { return peekFirst(); }
+
+	public void push(long e) { addFirst(e); }
+
+	public long pop() { return removeFirst(); }
+
+	public long get(int i) {
+		if (i < 0 || i >= count)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + count);
+		return elements[toArrayI(i)];
+	}
+
+	public long set(int i, long e) {
+		long old = get(i);
+		elements[toArrayI(i)] = e;
+		return old;
+	}
+
+	public boolean contains(long e) {
+		for (int i = 0; i < count; i++)
+			if (elements[toArrayI(i)] == e)
+				return true;
+		return false;
+	}
+
+	public void clear() {
+		head = 0;
+		count = 0;
+	}
+
+	public long[] toArray() {
+		long[] array = new long[count];
+		int firstPart = Math.min(count, elements.length - head);
+		System.arraycopy(elements, head, array, 0, firstPart);
+		System.arraycopy(elements, 0, array, firstPart, count - firstPart);
+		return array;
+	}
+
+	// iterators
+
+	public void forEach(LongConsumer action) {
+		for (int i = 0; i < count; i++)
+			action.accept(elements[toArrayI(i)]);
+	}
+
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+			int nextI = 0;
+
+			public boolean hasNext() { return nextI < count; }
+
+			public long nextLong() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return elements[toArrayI(nextI++)];
+			}
+		};
+	}
+
+	public PrimitiveIterator.OfLong descendingIterator() {
+		return new PrimitiveIterator.OfLong() {
+			int nextI = count - 1;
+
+			public boolean hasNext() { return nextI >= 0; }
+
+			public long nextLong() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return elements[toArrayI(nextI--)];
+			}
+		};
+	}
+
+	@Override
+	public String toString() { return Arrays.toString(toArray()); }
+}
@@ -1,21 +1,169 @@
 package in.rslather.utils;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 public class Utility {
 	private static final ThreadLocal<Object> MONITOR = ThreadLocal
 			.withInitial(Object::new);
+	private static final ThreadMXBean THREADS = ManagementFactory
+			.getThreadMXBean();
 
+	public static final int DEFAULT_WARMUP = 1_000;
+	public static final int DEFAULT_REPETITIONS = 10_000;
+
+	/**
+	 * @return elapsed milliseconds of a single run
+	 */
 	public static long measureElapsedTime(final Runnable runnable) {
-		final long startTime = System.currentTimeMillis();
+		return TimeUnit.NANOSECONDS.toMillis(measureElapsedNanos(runnable));
+	}
+
+	/**
+	 * @return elapsed nanoseconds of a single run
+	 */
+	public static long measureElapsedNanos(final Runnable runnable) {
+		final long startTime = System.nanoTime();
 		runnable.run();
-		return System.currentTimeMillis() - startTime;
+		return System.nanoTime() - startTime;
 	}
 
 	public static void printElapsedTime(final Runnable runnable) {
 		System.out.println("Elapsed time is " + measureElapsedTime(runnable));
 	}
 
+	public static void printElapsedNanos(final Runnable runnable) {
+		System.out.println("Elapsed time is "
+				+ measureElapsedNanos(runnable) + " ns");
+	}
+
+	/**
+	 * Bytes allocated by the current thread so far, or -1 when the JVM
+	 * does not count them.
+	 */
+	public static long allocatedBytes() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+			if (threads.isThreadAllocatedMemorySupported()
+					&& threads.isThreadAllocatedMemoryEnabled())
+				return threads.getThreadAllocatedBytes(
+						Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	public static Profile profile(final Runnable runnable) {
+		return profile(runnable, DEFAULT_WARMUP, DEFAULT_REPETITIONS);
+	}
+
+	/**
+	 * Runs runnable warmup times unmeasured (so the JIT compiles it), then
+	 * times every one of repetitions runs on the current thread and counts
+	 * what they allocated.</br>
+	 * Every run is timed separately, so runs much shorter than the cost of
+	 * System.nanoTime() (some tens of nanoseconds) should be batched inside
+	 * the runnable.
+	 */
+	public static Profile profile(final Runnable runnable, final int warmup,
+			final int repetitions) {
+		if (warmup < 0 || repetitions <= 0)
+			throw new IllegalArgumentException();
+
+		for (int i = 0; i < warmup; i++)
+			runnable.run();
+
+		final long[] samples = new long[repetitions];
+		final long startBytes = allocatedBytes();
+		for (int i = 0; i < repetitions; i++) {
+			final long startTime = System.nanoTime();
+			runnable.run();
+			samples[i] = System.nanoTime() - startTime;
+		}
+		final long endBytes = allocatedBytes();
+
+		return new Profile(samples,
+				(startBytes < 0) ? -1 : endBytes - startBytes);
+	}
+
+	public static void printProfile(final Runnable runnable) {
+		System.out.println(profile(runnable));
+	}
+
+	/**
+	 * Timings of the measured runs of {@link Utility#profile}, in
+	 * nanoseconds.
+	 */
+	public static final class Profile {
+		final long[] sorted;
+		final long totalNanos;
+		final long allocatedBytes;
+
+		Profile(final long[] samples, final long allocatedBytes) {
+			sorted = samples;
+			Arrays.sort(sorted);
+			long total = 0;
+			for (final long sample : sorted)
+				total += sample;
+			totalNanos = total;
+			this.allocatedBytes = allocatedBytes;
+		}
+
+		public int repetitions() {
+			return sorted.length;
+		}
+
+		public long min() {
+			return sorted[0];
+		}
+
+		public long max() {
+			return sorted[sorted.length - 1];
+		}
+
+		public double mean() {
+			return (double) totalNanos / sorted.length;
+		}
+
+		/**
+		 * @param p percentile between 0 and 100, nearest rank
+		 */
+		public long percentile(final double p) {
+			if (p < 0 || p > 100)
+				throw new IllegalArgumentException();
+			final int rank = (int) Math.ceil(p / 100 * sorted.length);
+			return sorted[Math.max(rank - 1, 0)];
+		}
+
+		/**
+		 * @return bytes allocated by all measured runs together, -1 when
+		 *         the JVM does not count them
+		 */
+		public long allocatedBytes() {
+			return allocatedBytes;
+		}
+
+		/**
+		 * @return bytes allocated per run, -1 when the JVM does not count
+		 *         them
+		 */
+		public double allocatedBytesPerRun() {
+			return (allocatedBytes < 0) ? -1
+					: (double) allocatedBytes / sorted.length;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+					"%d runs: mean %.1f ns, min %d, p50 %d, p90 %d, p99 %d, p99.9 %d, max %d, %.1f bytes/run",
+					repetitions(), mean(), min(), percentile(50),
+					percentile(90), percentile(99), percentile(99.9), max(),
+					allocatedBytesPerRun());
+		}
+	}
+
 	public static void waitingSleep(final long timeInMilliseconds)
 			throws InterruptedException {
 		final long startTime = System.currentTimeMillis();
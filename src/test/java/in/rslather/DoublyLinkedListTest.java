@@ -0,0 +1,111 @@
+package in.rslather;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DoublyLinkedListTest {
+	static List<DLLNode<Integer>> fill(DoublyLinkedList<Integer> list, int n) {
+		List<DLLNode<Integer>> nodes = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			DLLNode<Integer> node = new DLLNode<>(i);
+			nodes.add(node);
+			list.addLast(node);
+		}
+		return nodes;
+	}
+
+	@Test
+	void spliceMovesOwnershipOfTheRangeOnly() {
+		DoublyLinkedList<Integer> source = new DoublyLinkedList<>();
+		DoublyLinkedList<Integer> target = new DoublyLinkedList<>();
+		List<DLLNode<Integer>> nodes = fill(source, 10);
+		DLLNode<Integer> other = new DLLNode<>(100);
+		target.addLast(other);
+
+		source.splice(nodes.get(3), nodes.get(5), target, other);
+
+		assertEquals(7, source.size());
+		assertEquals(4, target.size());
+		for (int i = 0; i < 10; i++) {
+			boolean moved = i >= 3 && i <= 5;
+			assertEquals(!moved, source.contains(nodes.get(i)));
+			assertEquals(moved, target.contains(nodes.get(i)));
+		}
+		assertThrows(IllegalArgumentException.class, () -> source.removeNode(nodes.get(4)));
+		target.removeNode(nodes.get(4));
+		assertFalse(target.contains(nodes.get(4)));
+	}
+
+	@Test
+	void spliceFollowsTheTargetIntoALaterConcat() {
+		DoublyLinkedList<Integer> source = new DoublyLinkedList<>();
+		DoublyLinkedList<Integer> target = new DoublyLinkedList<>();
+		DoublyLinkedList<Integer> last = new DoublyLinkedList<>();
+		List<DLLNode<Integer>> nodes = fill(source, 4);
+
+		source.splice(nodes.get(1), nodes.get(2), target, null);
+		last.concat(target);
+
+		assertTrue(last.contains(nodes.get(1)));
+		assertFalse(target.contains(nodes.get(2)));
+		assertTrue(source.contains(nodes.get(3)));
+	}
+
+	@Test
+	void clearedNodesAreInNoList() {
+		DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+		List<DLLNode<Integer>> nodes = fill(list, 5);
+
+		list.clear();
+		list.addLast(nodes.get(2));
+
+		assertTrue(list.contains(nodes.get(2)));
+		assertFalse(list.contains(nodes.get(1)));
+		assertFalse(list.contains(nodes.get(4)));
+		new DoublyLinkedList<Integer>().addLast(nodes.get(4));
+	}
+
+	@Test
+	void spliceAndContainsStayFlatAsTheListGrows() {
+		// a check after a splice used to walk the rest of the source list, about 30 ms a step at a million nodes
+		DoublyLinkedList<Integer> source = new DoublyLinkedList<>();
+		DoublyLinkedList<Integer> target = new DoublyLinkedList<>();
+		List<DLLNode<Integer>> nodes = fill(source, 1_000_000);
+
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			for (int i = 0; i < 100_000; i++) {
+				DLLNode<Integer> node = nodes.get(i);
+				source.splice(node, node, target, null);
+				assertTrue(source.contains(nodes.get(nodes.size() - 1 - i)));
+				assertTrue(target.contains(node));
+			}
+		});
+		assertEquals(900_000, source.size());
+	}
+
+	@Test
+	void indexLookupsReturnNullOutOfRange() {
+		DoublyLinkedList<Integer> list = new DoublyLinkedList<>();
+		List<DLLNode<Integer>> nodes = fill(list, 5);
+
+		for (int i = 0; i < 5; i++) {
+			assertSame(nodes.get(i), list.getForward(i));
+			assertSame(nodes.get(i), list.getBackward(i));
+		}
+		for (int i : new int[] { -1, 5, 6 }) {
+			assertNull(list.getForward(i));
+			assertNull(list.getBackward(i));
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package in.rslather.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrentLRUCacheTest {
+	static final Executor REJECTING = task -> {
+		throw new RejectedExecutionException("shut down");
+	};
+
+	@Test
+	void rejectedLoadFailsTheFutureAndLeavesNothingInFlight() {
+		ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<>(16, 4, StatsCounter.DISABLED, REJECTING);
+
+		CompletableFuture<String> future = cache.getAsync("a", String::toUpperCase);
+
+		assertTrue(future.isCompletedExceptionally());
+		ExecutionException e = assertThrows(ExecutionException.class, future::get);
+		assertInstanceOf(RejectedExecutionException.class, e.getCause());
+		assertTrue(cache.loading.isEmpty());
+		assertNull(cache.peek("a"));
+	}
+
+	@Test
+	void keyCanBeLoadedAfterARejectedLoad() {
+		ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<>(16, 4, StatsCounter.DISABLED, REJECTING);
+
+		cache.getAsync("a", String::toUpperCase);
+
+		assertEquals("A", cache.get("a", String::toUpperCase));
+		assertEquals("A", cache.peek("a"));
+	}
+}
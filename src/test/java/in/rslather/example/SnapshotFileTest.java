@@ -0,0 +1,51 @@
+package in.rslather.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotFileTest {
+	@TempDir
+	Path dir;
+
+	@Test
+	void writtenEntriesReadBackInOrder() throws IOException {
+		Path file = dir.resolve("snapshot");
+		List<Pair<Integer, String>> entries = List.of(new Pair<>(1, "a"), new Pair<>(2, "b"));
+
+		SnapshotFile.write(file, entries, Codec.INTEGER, Codec.STRING);
+
+		List<String> read = new ArrayList<>();
+		assertEquals(2, SnapshotFile.read(file, Codec.INTEGER, Codec.STRING, (k, v) -> read.add(k + v)));
+		assertEquals(List.of("1a", "2b"), read);
+		assertFalse(Files.exists(dir.resolve("snapshot.tmp")));
+	}
+
+	@Test
+	void failedWriteLeavesNoTemporaryFile() throws IOException {
+		Path file = dir.resolve("snapshot");
+		SnapshotFile.write(file, List.of(new Pair<>(1, "old")), Codec.INTEGER, Codec.STRING);
+		Codec<String> failing = new Codec<>() {
+			public byte[] encode(String value) { throw new IllegalStateException("cannot encode " + value); }
+
+			public String decode(byte[] bytes) { throw new UnsupportedOperationException(); }
+		};
+
+		assertThrows(IllegalStateException.class,
+				() -> SnapshotFile.write(file, List.of(new Pair<>(1, "new")), Codec.INTEGER, failing));
+
+		assertFalse(Files.exists(dir.resolve("snapshot.tmp")));
+		List<String> read = new ArrayList<>();
+		SnapshotFile.read(file, Codec.INTEGER, Codec.STRING, (k, v) -> read.add(v));
+		assertEquals(List.of("old"), read);
+	}
+}
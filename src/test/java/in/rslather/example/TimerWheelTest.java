@@ -0,0 +1,53 @@
+package in.rslather.example;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+	static final long SECOND = 1_000_000_000L;
+	static final long STEP = SECOND / 10;
+
+	/**
+	 * @return time of the advance which expired a timer scheduled delay after start
+	 */
+	static long firedAt(long start, long delay) {
+		List<String> expired = new ArrayList<>();
+		TimerWheel<String> wheel = new TimerWheel<>(start, expired::add);
+		wheel.schedule(new TimerWheel.Node<>("timer"), start + delay);
+
+		for (long now = start + STEP;; now += STEP) {
+			wheel.advance(now);
+			if (!expired.isEmpty())
+				return now;
+			if (now - start > delay + 100 * SECOND)
+				return Long.MAX_VALUE;
+		}
+	}
+
+	@Test
+	void firesWithinALevelZeroBucket() {
+		long fired = firedAt(0, 3 * SECOND);
+		assertTrue(fired >= 3 * SECOND && fired - 3 * SECOND <= TimerWheel.SPANS[0], "fired at " + fired);
+	}
+
+	@Test
+	void firesWithinALevelZeroBucketAfterDays() {
+		long delay = 10 * 24 * 3600 * SECOND;
+		long fired = firedAt(0, delay);
+		assertTrue(fired >= delay && fired - delay <= TimerWheel.SPANS[0], "fired at " + fired);
+	}
+
+	@Test
+	void firesWithinALevelZeroBucketWhenNanoTimePassesZero() {
+		// due in the last bucket before zero, with an advance landing on zero and one stepping over it
+		for (long start : new long[] { -5 * SECOND, -5 * SECOND + STEP / 3 }) {
+			long time = start + 4_500_000_000L;
+			long fired = firedAt(start, time - start);
+			assertTrue(fired >= time && fired - time <= TimerWheel.SPANS[0], "fired at " + fired);
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package in.rslather.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ArrayBagTest {
+	@Test
+	void removeIfCompactsTheKeptElements() {
+		ArrayBag<Integer> bag = new ArrayBag<>(List.of(1, 2, 3, 4, 5, 6));
+
+		assertTrue(bag.removeIf(e -> e % 2 == 0));
+		assertEquals(List.of(1, 3, 5), bag.getClonedList());
+		assertFalse(bag.removeIf(e -> e > 10));
+	}
+
+	@Test
+	void removeIfKeepsTheRestWhenTheFilterThrows() {
+		ArrayBag<Integer> bag = new ArrayBag<>(List.of(1, 2, 3, 4, 5, 6));
+
+		assertThrows(IllegalStateException.class, () -> bag.removeIf(e -> {
+			if (e == 4)
+				throw new IllegalStateException();
+			return e % 2 == 0;
+		}));
+
+		assertEquals(List.of(1, 3, 4, 5, 6), bag.getClonedList());
+	}
+}